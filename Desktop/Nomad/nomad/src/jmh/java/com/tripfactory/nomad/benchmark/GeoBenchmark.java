@@ -0,0 +1,67 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+/**
+ * Haversine throughput: one call per point versus the batch kernel. The batch numbers use the Vector API
+ * when run with {@code -Pbenchmark,vector}; add {@code -jvmArgsAppend -Dnomad.geo.vector=false} to measure the
+ * scalar kernel in the same build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoBenchmark {
+
+    @Param({ "16", "1000", "100000" })
+    private int points;
+
+    private double[] lats;
+    private double[] lons;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lats = new double[points];
+        lons = new double[points];
+        out = new double[points];
+        for (int i = 0; i < points; i++) {
+            double[] point = SyntheticCatalog.origin(random);
+            lats[i] = point[0];
+            lons[i] = point[1];
+        }
+    }
+
+    @Benchmark
+    public void pairwise(Blackhole blackhole) {
+        for (int i = 0; i < points; i++) {
+            blackhole.consume(GeoUtils.haversineKm(SyntheticCatalog.CENTER_LAT, SyntheticCatalog.CENTER_LON,
+                    lats[i], lons[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] batch() {
+        GeoUtils.haversineKm(SyntheticCatalog.CENTER_LAT, SyntheticCatalog.CENTER_LON, lats, lons, out, points);
+        return out;
+    }
+}
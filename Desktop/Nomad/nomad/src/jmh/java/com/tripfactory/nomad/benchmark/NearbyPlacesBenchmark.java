@@ -0,0 +1,67 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tripfactory.nomad.api.dto.PlaceNearbyResponse;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+import com.tripfactory.nomad.service.impl.PlaceServiceImpl;
+
+/**
+ * {@code PlaceServiceImpl.getNearbyPlaces} served from the spatial index, including hydration of the
+ * top-K hits through the (in-memory) repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyPlacesBenchmark {
+
+    private static final int ORIGINS = 1024;
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int places;
+
+    @Param({ "5", "25" })
+    private double radiusKm;
+
+    private PlaceServiceImpl placeService;
+    private double[][] origins;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        PlaceRepository placeRepository = RepositoryStubs.places(SyntheticCatalog.city(places, 7));
+        PlaceSpatialIndex index = new PlaceSpatialIndex(placeRepository);
+        index.rebuild();
+        placeService = new PlaceServiceImpl(placeRepository, index);
+        Random random = new Random(13);
+        origins = new double[ORIGINS][];
+        for (int i = 0; i < ORIGINS; i++) {
+            origins[i] = SyntheticCatalog.origin(random);
+        }
+    }
+
+    @Benchmark
+    public List<PlaceNearbyResponse> nearby() {
+        next = (next + 1) & (ORIGINS - 1);
+        double[] origin = origins[next];
+        return placeService.getNearbyPlaces(SyntheticCatalog.CITY, origin[0], origin[1], null, radiusKm, 20);
+    }
+}
@@ -0,0 +1,141 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.tripfactory.nomad.api.dto.PlanPreviewRequest;
+import com.tripfactory.nomad.api.dto.PlanPreviewResponse;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.UserRole;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+import com.tripfactory.nomad.repository.TripPlanRepository;
+import com.tripfactory.nomad.repository.TripRequestRepository;
+import com.tripfactory.nomad.security.TripOwnerIndex;
+import com.tripfactory.nomad.security.UserPrincipal;
+import com.tripfactory.nomad.service.NotificationService;
+import com.tripfactory.nomad.service.impl.TripServiceImpl;
+import com.tripfactory.nomad.service.planner.CityPlaceSnapshot;
+import com.tripfactory.nomad.service.planner.DistanceMatrixCache;
+import com.tripfactory.nomad.service.planner.PlaceSnapshotRegistry;
+import com.tripfactory.nomad.service.planner.PlanPreviewCache;
+import com.tripfactory.nomad.service.planner.PreviewTokenStore;
+import com.tripfactory.nomad.service.planner.TripPlanner;
+import com.tripfactory.nomad.service.route.LocalSearchRouteOptimizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Planner throughput against a warm city snapshot: ranking plus plan building for every option, a single
+ * option (the create path), and the full {@code previewPlans} call with the preview cache disabled so each
+ * invocation plans from scratch. Each invocation uses the next of 1,024 pseudo-random user locations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlannerBenchmark {
+
+    private static final int ORIGINS = 1024;
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int places;
+
+    private TripPlanner planner;
+    private CityPlaceSnapshot snapshot;
+    private TripServiceImpl tripService;
+    private double[][] origins;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PlaceRepository placeRepository = RepositoryStubs.places(SyntheticCatalog.city(places, 7));
+        PlaceSnapshotRegistry snapshots = new PlaceSnapshotRegistry(placeRepository, meterRegistry, 500,
+                Duration.ofHours(1));
+        LocalSearchRouteOptimizer routeOptimizer = new LocalSearchRouteOptimizer(50);
+        planner = new TripPlanner(routeOptimizer, new DistanceMatrixCache(meterRegistry, 4000, 256, true),
+                100, 2000, 500, 0);
+        snapshot = snapshots.forCity(SyntheticCatalog.CITY);
+        tripService = new TripServiceImpl(RepositoryStubs.users(), placeRepository,
+                RepositoryStubs.stub(TripGroupRepository.class, Map.of()),
+                RepositoryStubs.stub(TripRequestRepository.class, Map.of()),
+                RepositoryStubs.stub(TripPlanRepository.class, Map.of()),
+                RepositoryStubs.stub(NotificationService.class, Map.of()),
+                snapshots, planner,
+                new PlanPreviewCache(meterRegistry, false, 0, Duration.ZERO, 6),
+                new PreviewTokenStore(meterRegistry, 100_000, Duration.ofMinutes(30)),
+                routeOptimizer, null,
+                new TripOwnerIndex(RepositoryStubs.stub(TripRequestRepository.class, Map.of()), meterRegistry, 1000),
+                null);
+
+        // Preview tokens are minted for the authenticated caller; the global strategy covers JMH's worker threads
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        UserPrincipal principal = new UserPrincipal(1L, "bench@example.com", UserRole.USER, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        Random random = new Random(11);
+        origins = new double[ORIGINS][];
+        for (int i = 0; i < ORIGINS; i++) {
+            origins[i] = SyntheticCatalog.origin(random);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        planner.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public TripPlanner.PlanOptions planAllOptions() {
+        double[] origin = nextOrigin();
+        return planner.planAll(snapshot, origin[0], origin[1], origin[0], origin[1], WeekendType.TWO_DAY);
+    }
+
+    @Benchmark
+    public Object planSingleOption() {
+        double[] origin = nextOrigin();
+        return planner.plan(snapshot, origin[0], origin[1], origin[0], origin[1], WeekendType.TWO_DAY,
+                TripPlanner.singleInterestPlan(InterestType.CULTURE));
+    }
+
+    @Benchmark
+    public PlanPreviewResponse previewPlans() {
+        double[] origin = nextOrigin();
+        PlanPreviewRequest request = new PlanPreviewRequest();
+        request.setUserId(1L);
+        request.setCity(SyntheticCatalog.CITY);
+        request.setUserLatitude(origin[0]);
+        request.setUserLongitude(origin[1]);
+        request.setWeekendType(WeekendType.TWO_DAY);
+        return tripService.previewPlans(request);
+    }
+
+    private double[] nextOrigin() {
+        next = (next + 1) & (ORIGINS - 1);
+        return origins[next];
+    }
+}
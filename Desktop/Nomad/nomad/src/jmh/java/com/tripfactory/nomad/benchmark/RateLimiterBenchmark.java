@@ -0,0 +1,98 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripfactory.nomad.security.RateLimitFilter;
+import com.tripfactory.nomad.security.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Cost the rate limiter adds per request, with 8 threads contending: every thread on one bucket (the worst
+ * case for the compare-and-set), threads spread over 10,000 clients, and the whole filter including route
+ * matching. Limits are set high enough that requests are granted, which is the path every request pays for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private TokenBucketLimiter limiter;
+    private RateLimitFilter filter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketLimiter(1_000_000, 1e9, 100_000, System::nanoTime);
+        filter = new RateLimitFilter(List.of(
+                route("login", "/api/auth/login"),
+                route("preview", "/api/trips/preview"),
+                route("nearby", "/api/places/nearby"),
+                route("share", "/api/share/**")), new ObjectMapper());
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i >> 8) + "." + (i & 255);
+            limiter.tryAcquire(clients[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/share/abc123");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup
+        public void setUp() {
+            request.setRemoteAddr("10.1.0." + ThreadLocalRandom.current().nextInt(256));
+        }
+    }
+
+    @Benchmark
+    public long sharedBucket() {
+        return limiter.tryAcquire("ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public long spreadClients() {
+        return limiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    public int filter(Request state) throws Exception {
+        filter.doFilter(state.request, state.response, NO_OP);
+        return state.response.getStatus();
+    }
+
+    private static RateLimitFilter.Route route(String name, String path) {
+        return new RateLimitFilter.Route(name, List.of(PathPatternParser.defaultInstance.parse(path)), Set.of(),
+                new TokenBucketLimiter(1_000_000, 1e9, 100_000, System::nanoTime),
+                new SimpleMeterRegistry().counter("rejected"));
+    }
+}
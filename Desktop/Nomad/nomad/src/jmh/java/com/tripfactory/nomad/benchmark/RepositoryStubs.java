@@ -0,0 +1,70 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.repository.UserRepository;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories the benchmarked services call, built as JDK proxies
+ * so that no database or Spring context is involved. Methods a benchmark does not expect fail loudly.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    static PlaceRepository places(List<Place> catalog) {
+        Map<Long, Place> byId = catalog.stream().collect(Collectors.toMap(Place::getId, Function.identity()));
+        List<PlaceSummary> summaries = catalog.stream().map(PlaceSummary::of).collect(Collectors.toList());
+        return stub(PlaceRepository.class, Map.of(
+                "findAll", args -> new ArrayList<>(catalog),
+                "findAllSummaries", args -> new ArrayList<>(summaries),
+                "findSummariesByCity", args -> summaries.stream()
+                        .filter(p -> p.getCity().equalsIgnoreCase((String) args[0]))
+                        .collect(Collectors.toList()),
+                "findAllById", args -> {
+                    List<Place> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Place place = byId.get(id);
+                        if (place != null) {
+                            found.add(place);
+                        }
+                    }
+                    return found;
+                },
+                "findById", args -> Optional.ofNullable(byId.get(args[0]))));
+    }
+
+    static UserRepository users() {
+        return stub(UserRepository.class, Map.of("existsById", args -> true));
+    }
+
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return handler.apply(args);
+            }
+        });
+        return type.cast(proxy);
+    }
+}
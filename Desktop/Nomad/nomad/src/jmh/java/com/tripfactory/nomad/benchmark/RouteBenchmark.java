@@ -0,0 +1,90 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.service.planner.CityPlaceSnapshot;
+import com.tripfactory.nomad.service.planner.DistanceMatrixCache;
+import com.tripfactory.nomad.service.planner.PlaceSnapshotRegistry;
+import com.tripfactory.nomad.service.planner.TripPlanner;
+import com.tripfactory.nomad.service.route.LocalSearchRouteOptimizer;
+import com.tripfactory.nomad.service.route.RouteCosts;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ordering of hand-picked places (the {@code createTripFromPlaces} path): greedy nearest-neighbour only,
+ * greedy plus 2-opt/Or-opt on freshly computed haversine costs, and the same over the cached city matrix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteBenchmark {
+
+    @Param({ "10", "20", "40" })
+    private int stops;
+
+    private final LocalSearchRouteOptimizer greedy = new LocalSearchRouteOptimizer(0);
+    private final LocalSearchRouteOptimizer localSearch = new LocalSearchRouteOptimizer(50);
+    private TripPlanner planner;
+    private CityPlaceSnapshot snapshot;
+    private int[] positions;
+    private double[] lats;
+    private double[] lons;
+
+    @Setup
+    public void setUp() {
+        List<Place> catalog = SyntheticCatalog.city(1000, 3);
+        snapshot = new PlaceSnapshotRegistry(RepositoryStubs.places(catalog), new SimpleMeterRegistry(), 500,
+                Duration.ofHours(1)).forCity(SyntheticCatalog.CITY);
+        planner = new TripPlanner(localSearch, new DistanceMatrixCache(new SimpleMeterRegistry(), 4000, 256, true),
+                100, 2000, 500, 1);
+        Random random = new Random(5);
+        positions = random.ints(0, snapshot.size()).distinct().limit(stops).toArray();
+        lats = new double[stops];
+        lons = new double[stops];
+        for (int i = 0; i < stops; i++) {
+            lats[i] = snapshot.latitude(positions[i]);
+            lons[i] = snapshot.longitude(positions[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        planner.shutdown();
+    }
+
+    @Benchmark
+    public int[] nearestNeighbour() {
+        return greedy.optimize(RouteCosts.haversine(SyntheticCatalog.CENTER_LAT, SyntheticCatalog.CENTER_LON, lats, lons));
+    }
+
+    @Benchmark
+    public int[] localSearch() {
+        return localSearch.optimize(RouteCosts.haversine(SyntheticCatalog.CENTER_LAT, SyntheticCatalog.CENTER_LON, lats, lons));
+    }
+
+    @Benchmark
+    public int[] localSearchOverCityMatrix() {
+        return planner.route(snapshot, positions, SyntheticCatalog.CENTER_LAT, SyntheticCatalog.CENTER_LON);
+    }
+}
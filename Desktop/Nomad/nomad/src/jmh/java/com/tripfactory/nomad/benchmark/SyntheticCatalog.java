@@ -0,0 +1,56 @@
+package com.tripfactory.nomad.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+
+/**
+ * Deterministic place catalogs for benchmarks. Places are spread over a handful of Gaussian neighbourhoods
+ * around the city centre so density looks like a real city rather than a uniform square.
+ */
+final class SyntheticCatalog {
+
+    static final String CITY = "Bengaluru";
+    static final double CENTER_LAT = 12.9716;
+    static final double CENTER_LON = 77.5946;
+
+    private static final InterestType[] CATEGORIES = InterestType.values();
+    private static final int NEIGHBOURHOODS = 12;
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Place> city(int places, long seed) {
+        Random random = new Random(seed);
+        double[][] hubs = new double[NEIGHBOURHOODS][2];
+        for (double[] hub : hubs) {
+            hub[0] = CENTER_LAT + random.nextGaussian() * 0.08;
+            hub[1] = CENTER_LON + random.nextGaussian() * 0.08;
+        }
+        List<Place> catalog = new ArrayList<>(places);
+        for (int i = 0; i < places; i++) {
+            double[] hub = hubs[random.nextInt(NEIGHBOURHOODS)];
+            Place place = new Place();
+            place.setId(i + 1L);
+            place.setName("Place " + (i + 1));
+            place.setCity(CITY);
+            place.setLatitude(hub[0] + random.nextGaussian() * 0.02);
+            place.setLongitude(hub[1] + random.nextGaussian() * 0.02);
+            place.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            place.setRating(3.0 + Math.round(random.nextDouble() * 20) / 10.0);
+            place.setDescription("Synthetic place " + (i + 1));
+            catalog.add(place);
+        }
+        return catalog;
+    }
+
+    /** A random point inside the city, used as the user's location. */
+    static double[] origin(Random random) {
+        return new double[] {
+                CENTER_LAT + random.nextGaussian() * 0.05,
+                CENTER_LON + random.nextGaussian() * 0.05 };
+    }
+}
@@ -2,6 +2,7 @@ package com.tripfactory.nomad.api.controller;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +29,7 @@ import com.tripfactory.nomad.repository.PlaceRepository;
 import com.tripfactory.nomad.repository.TripRequestRepository;
 import com.tripfactory.nomad.repository.UserRepository;
 import com.tripfactory.nomad.repository.VehicleRepository;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
 import com.tripfactory.nomad.service.exception.ResourceNotFoundException;
 
 import org.springframework.data.domain.PageRequest;
@@ -46,6 +48,7 @@ public class AdminController {
     private final VehicleRepository vehicleRepository;
     private final TripRequestRepository tripRequestRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/places")
     public ResponseEntity<PlaceResponse> createPlace(@Valid @RequestBody PlaceCreateRequest request) {
@@ -61,6 +64,7 @@ public class AdminController {
         place.setOpeningHours(request.getOpeningHours());
 
         Place saved = placeRepository.save(place);
+        eventPublisher.publishEvent(PlaceCatalogChangedEvent.added(saved));
         return new ResponseEntity<>(toResponse(saved), HttpStatus.CREATED);
     }
 
@@ -72,10 +76,10 @@ public class AdminController {
 
     @DeleteMapping("/places/{id}")
     public ResponseEntity<Void> deletePlace(@PathVariable @NonNull Long id) {
-        if (!placeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Place not found");
-        }
+        Place place = placeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Place not found"));
         placeRepository.deleteById(id);
+        eventPublisher.publishEvent(PlaceCatalogChangedEvent.removed(place));
         return ResponseEntity.noContent().build();
     }
 
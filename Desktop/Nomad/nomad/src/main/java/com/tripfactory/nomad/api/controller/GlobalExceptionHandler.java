@@ -16,6 +16,7 @@ import org.springframework.web.context.request.WebRequest;
 
 import com.tripfactory.nomad.service.exception.BadRequestException;
 import com.tripfactory.nomad.service.exception.ResourceNotFoundException;
+import com.tripfactory.nomad.service.exception.ServiceBusyException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -55,6 +56,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Object> handleBusy(ServiceBusyException ex) {
+        log.warn("Busy: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        body.put("status", 503);
+        body.put("timestamp", LocalDateTime.now().toString());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(body, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAll(Exception ex) {
         log.error("Unhandled exception", ex);
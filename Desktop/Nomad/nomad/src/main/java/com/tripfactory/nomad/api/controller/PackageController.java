@@ -21,6 +21,7 @@ import com.tripfactory.nomad.domain.entity.TripRequest;
 import com.tripfactory.nomad.domain.entity.User;
 import com.tripfactory.nomad.repository.TripRequestRepository;
 import com.tripfactory.nomad.repository.UserRepository;
+import com.tripfactory.nomad.security.TripOwnerIndex;
 import com.tripfactory.nomad.service.PackageService;
 import com.tripfactory.nomad.service.PaymentService;
 
@@ -36,6 +37,7 @@ public class PackageController {
     private final TripRequestRepository tripRequestRepository;
     private final UserRepository userRepository;
     private final PaymentService paymentService;
+    private final TripOwnerIndex tripOwnerIndex;
 
     @GetMapping("/homepage")
     public ResponseEntity<List<PackageSummaryResponse>> homepagePackages() {
@@ -82,6 +84,7 @@ public class PackageController {
             trip.setEstimatedCost(0.0);
         }
         trip = tripRequestRepository.save(trip);
+        tripOwnerIndex.recordOwner(trip.getId(), user.getId());
 
         // delegate to payment service
         PaymentCreateRequest payReq = new PaymentCreateRequest();
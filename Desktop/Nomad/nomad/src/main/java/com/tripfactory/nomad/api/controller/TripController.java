@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.tripfactory.nomad.api.dto.PlanPreviewRequest;
@@ -32,6 +33,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TripController {
 
+    static final String NEXT_BEFORE_ID_HEADER = "X-Next-Before-Id";
+    private static final int DEFAULT_TRIPS_PAGE_SIZE = 20;
+
     private final TripService tripService;
     private final UserRepository userRepository;
 
@@ -53,7 +57,9 @@ public class TripController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<List<TripResponse>> getMyTrips() {
+    public ResponseEntity<List<TripResponse>> getMyTrips(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         System.out.println("[TRIP CONTROLLER] Authenticated user: " + email);
         User user = userRepository.findByEmail(email).orElse(null);
@@ -62,7 +68,7 @@ public class TripController {
             return ResponseEntity.status(401).build();
         }
         System.out.println("[TRIP CONTROLLER] Found user ID: " + user.getId());
-        return ResponseEntity.ok(tripService.getTripsByUser(user.getId()));
+        return tripsOf(user.getId(), beforeId, limit);
     }
 
     // Path variable endpoint last — id must be numeric so "create-from-places" is not matched
@@ -80,8 +86,27 @@ public class TripController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("@authz.canAccessUser(#userId)")
-    public ResponseEntity<List<TripResponse>> getTripsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(tripService.getTripsByUser(userId));
+    public ResponseEntity<List<TripResponse>> getTripsByUser(@PathVariable Long userId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit) {
+        return tripsOf(userId, beforeId, limit);
+    }
+
+    /**
+     * Without {@code limit} the full list is returned as before. With it, trips come newest first and a full
+     * page carries the cursor for the next one in {@value #NEXT_BEFORE_ID_HEADER}.
+     */
+    private ResponseEntity<List<TripResponse>> tripsOf(Long userId, Long beforeId, Integer limit) {
+        if (limit == null && beforeId == null) {
+            return ResponseEntity.ok(tripService.getTripsByUser(userId));
+        }
+        int pageSize = limit != null ? limit : DEFAULT_TRIPS_PAGE_SIZE;
+        List<TripResponse> page = tripService.getTripsByUser(userId, beforeId, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_BEFORE_ID_HEADER, String.valueOf(page.get(page.size() - 1).getTripRequestId()));
+        }
+        return response.body(page);
     }
 
     @DeleteMapping("/{id}")
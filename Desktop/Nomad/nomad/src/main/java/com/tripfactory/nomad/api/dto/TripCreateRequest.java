@@ -33,4 +33,7 @@ public class TripCreateRequest {
     
     // Selected plan type (e.g., "FOOD Only", "CULTURE Only", "Hybrid")
     private String selectedPlanType;
+
+    // Token of a previewed option; when still valid the previewed plan is booked as-is
+    private String previewToken;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.tripfactory.nomad.api.dto;
 
+import java.time.LocalDate;
+
 import com.tripfactory.nomad.domain.enums.InterestType;
 import com.tripfactory.nomad.domain.enums.WeekendType;
 import lombok.Getter;
@@ -13,4 +15,6 @@ public class TripGroupCreateRequest {
     private String city;
     private InterestType interest;
     private WeekendType weekendType;
+    // Optional; defaults to the next weekend, the date trips booked without one travel on
+    private LocalDate travelDate;
 }
@@ -2,6 +2,8 @@ package com.tripfactory.nomad.api.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,4 +14,8 @@ import lombok.Setter;
 public class TripPlanOptionResponse {
     private String type; // e.g. "Culture Only", "Hybrid: Culture + Food"
     private List<TripPlanItemResponse> places;
+    // Set on preview options for the authenticated caller; pass back as TripCreateRequest.previewToken to book
+    // exactly this plan
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String previewToken;
 }
@@ -0,0 +1,34 @@
+package com.tripfactory.nomad.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Second-level cache regions by name. Entities and cacheable queries name their region; a region that is
+ * used but not listed here fails startup rather than silently getting an unbounded default.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "nomad.cache")
+public class HibernateCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Region {
+        /** Entries are dropped this long after they were written. */
+        private Duration ttl = Duration.ofMinutes(10);
+        /** Least-recently-used entries are evicted beyond this many. */
+        private long maxSize = 10_000;
+    }
+}
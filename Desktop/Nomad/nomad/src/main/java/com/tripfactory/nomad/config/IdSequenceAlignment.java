@@ -0,0 +1,65 @@
+package com.tripfactory.nomad.config;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Trip, plan, payment and review ids used to be IDENTITY columns. When their sequences are first created on an
+ * existing PostgreSQL database they would start at 1, so this creates each sequence (as Hibernate would) and
+ * moves it past the ids already in its table. The entity manager factory depends on this bean, so it runs
+ * before JPA is initialised and before any request can insert. It only ever moves a sequence forward, so it is
+ * a no-op on later starts.
+ */
+@Configuration(proxyBeanMethods = false)
+public class IdSequenceAlignment implements InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdSequenceAlignment.class);
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "trip_requests_seq", "trip_requests",
+            "trip_plans_seq", "trip_plans",
+            "payments_seq", "payments",
+            "place_reviews_seq", "place_reviews");
+
+    private final PostgresSchema schema;
+
+    public IdSequenceAlignment(DataSource dataSource) {
+        this.schema = new PostgresSchema(dataSource);
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor idSequencesAlignedBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdSequenceAlignment.class);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!schema.isPostgres()) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = schema.jdbc();
+        SEQUENCES.forEach((sequence, table) -> {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                    + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            // A fresh database has no table yet; Hibernate creates it with the rest of the schema
+            if (!schema.tableExists(table)) {
+                return;
+            }
+            Long aligned = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST((SELECT last_value FROM " + sequence + "),"
+                            + " (SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + "))",
+                    Long.class);
+            LOGGER.debug("Sequence {} is at {}", sequence, aligned);
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.tripfactory.nomad.config;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tripfactory.nomad.domain.enums.OutboxStatus;
+
+/**
+ * Hibernate creates {@code notification_outbox.status} with a check constraint listing the {@link OutboxStatus}
+ * values of the day, and schema update never revisits it. On an existing PostgreSQL database this rewrites the
+ * constraint from the current enum before JPA starts, so newer statuses can be stored. Once the constraint lists
+ * exactly the current values it is left alone, so later starts only read the catalog.
+ */
+@Configuration(proxyBeanMethods = false)
+public class OutboxStatusConstraint implements InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxStatusConstraint.class);
+    private static final String TABLE = "notification_outbox";
+    private static final String CONSTRAINT = "notification_outbox_status_check";
+
+    private final PostgresSchema schema;
+
+    public OutboxStatusConstraint(DataSource dataSource) {
+        this.schema = new PostgresSchema(dataSource);
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor outboxStatusConstraintBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(OutboxStatusConstraint.class);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        // A fresh database has no table yet; Hibernate creates it with the current values
+        if (!schema.isPostgres() || !schema.tableExists(TABLE)) {
+            return;
+        }
+        Set<String> values = Arrays.stream(OutboxStatus.values())
+                .map(OutboxStatus::name)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Optional<String> current = schema.constraintDefinition(TABLE, CONSTRAINT);
+        if (current.isPresent() && PostgresSchema.listedValues(current.get()).equals(values)) {
+            return;
+        }
+        String listed = values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+        schema.jdbc().execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS " + CONSTRAINT
+                + ", ADD CONSTRAINT " + CONSTRAINT + " CHECK (status IN (" + listed + "))");
+        LOGGER.info("Rewrote {} to allow {}", CONSTRAINT, values);
+    }
+}
@@ -0,0 +1,63 @@
+package com.tripfactory.nomad.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Catalog lookups for the startup steps that patch an existing PostgreSQL schema before JPA starts, where
+ * Hibernate's schema update falls short.
+ */
+final class PostgresSchema {
+
+    private static final Pattern QUOTED_VALUE = Pattern.compile("'((?:[^']|'')*)'");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PostgresSchema(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    JdbcTemplate jdbc() {
+        return jdbcTemplate;
+    }
+
+    boolean isPostgres() throws SQLException {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    /** False on a fresh database, where Hibernate creates the table with the rest of the schema. */
+    boolean tableExists(String table) {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    /** The definition of a constraint on {@code table}, as PostgreSQL prints it, if the constraint exists. */
+    Optional<String> constraintDefinition(String table, String constraint) {
+        List<String> definitions = jdbcTemplate.queryForList(
+                "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = to_regclass(?) AND conname = ?",
+                String.class, table, constraint);
+        return definitions.stream().findFirst();
+    }
+
+    /** The string literals a check constraint definition lists, e.g. the values of an {@code IN (...)} check. */
+    static Set<String> listedValues(String definition) {
+        Set<String> values = new LinkedHashSet<>();
+        Matcher matcher = QUOTED_VALUE.matcher(definition);
+        while (matcher.find()) {
+            values.add(matcher.group(1).replace("''", "'"));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tripfactory.nomad.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripfactory.nomad.security.RateLimitFilter;
+import com.tripfactory.nomad.security.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Builds the rate-limit filter from {@code nomad.rate-limit.*}. The filter runs inside the security chain
+ * (see SecurityConfig), not as a servlet filter of its own.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitingProperties.class)
+public class RateLimitingConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitingProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        List<RateLimitFilter.Route> routes = new ArrayList<>();
+        if (properties.isEnabled()) {
+            properties.getRoutes().forEach((name, route) -> routes.add(route(name, route, properties, meterRegistry)));
+        }
+        return new RateLimitFilter(routes, objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    private static RateLimitFilter.Route route(String name, RateLimitingProperties.Route route,
+            RateLimitingProperties properties, MeterRegistry meterRegistry) {
+        List<PathPattern> paths = route.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        Set<String> methods = route.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+        TokenBucketLimiter limiter = new TokenBucketLimiter(route.getCapacity(), route.getPermitsPerSecond(),
+                properties.getMaxKeys(), System::nanoTime);
+        Gauge.builder("nomad.rate-limit.buckets", limiter, TokenBucketLimiter::size)
+                .tag("route", name)
+                .description("Clients with a partly spent bucket")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("nomad.rate-limit.rejected")
+                .tag("route", name)
+                .description("Requests refused with 429")
+                .register(meterRegistry);
+        return new RateLimitFilter.Route(name, paths, methods, limiter, rejected);
+    }
+}
@@ -0,0 +1,45 @@
+package com.tripfactory.nomad.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Rate-limited route groups by name. A request is limited by the first group (in declaration order) whose
+ * paths and methods match it; requests matching no group are not limited.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "nomad.rate-limit")
+public class RateLimitingProperties {
+
+    private boolean enabled = true;
+    /** Buckets kept per route group; beyond this, new clients share one bucket until a sweep frees room. */
+    private long maxKeys = 100_000;
+    /** How often buckets that have refilled (and so hold no state) are dropped. */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Route {
+        /** Path patterns, e.g. {@code /api/share/**}. */
+        private List<String> paths = new ArrayList<>();
+        /** HTTP methods the group covers; empty covers all. */
+        private List<String> methods = new ArrayList<>();
+        /** Burst size: requests a client can make at once after being idle. */
+        private long capacity = 10;
+        /** Sustained rate the bucket refills at. */
+        private double permitsPerSecond = 1;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tripfactory.nomad.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.enums.GroupStatus;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+import com.tripfactory.nomad.service.group.GroupMatchingEngine;
+
+/**
+ * Brings groups that predate the matching engine up to date; a no-op once every group is done.
+ * <ul>
+ * <li>Fills {@code trip_groups.member_count} for groups created before the column existed.</li>
+ * <li>Gives dated OPEN groups with room their open key, so bookings join them again instead of opening a new
+ * group beside them. Only the oldest group per key can hold it; any others stay as they are. Undated OPEN
+ * groups cannot be matched by a booking and are left alone.</li>
+ * </ul>
+ */
+@Component
+public class TripGroupBackfill implements CommandLineRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripGroupBackfill.class);
+
+    private final TripGroupRepository tripGroupRepository;
+    private final TransactionTemplate transaction;
+
+    public TripGroupBackfill(TripGroupRepository tripGroupRepository, PlatformTransactionManager transactionManager) {
+        this.tripGroupRepository = tripGroupRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer counted = transaction.execute(status -> tripGroupRepository.backfillMemberCounts());
+        if (counted != null && counted > 0) {
+            LOGGER.info("Backfilled member counts for {} trip groups", counted);
+        }
+        List<TripGroup> unkeyed = tripGroupRepository.findUnkeyedOpenGroups(GroupStatus.OPEN,
+                GroupMatchingEngine.READY_SIZE);
+        int keyed = 0;
+        for (TripGroup group : unkeyed) {
+            String openKey = GroupMatchingEngine.openKey(group.getCity(), group.getInterest(), group.getWeekendType(),
+                    group.getTravelDate());
+            try {
+                // Each in its own transaction: a key already held (by an older group, or set by another node
+                // running this at the same time) only skips that group
+                Integer updated = transaction.execute(status ->
+                        tripGroupRepository.assignOpenKey(group.getId(), openKey, GroupStatus.OPEN));
+                keyed += updated == null ? 0 : updated;
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Open key {} is already held; group {} stays unjoinable", openKey, group.getId());
+            }
+        }
+        if (keyed > 0) {
+            LOGGER.info("Reopened {} of {} open trip groups without an open key", keyed, unkeyed.size());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.tripfactory.nomad.domain.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.tripfactory.nomad.domain.enums.InterestType;
 
 import jakarta.persistence.Column;
@@ -9,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,7 +22,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "places")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "places")
+@Table(name = "places", indexes = @Index(name = "idx_places_lat_lon", columnList = "latitude, longitude"))
 public class Place {
 
     @Id
@@ -3,6 +3,8 @@ package com.tripfactory.nomad.domain.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.tripfactory.nomad.domain.enums.GroupStatus;
 import com.tripfactory.nomad.domain.enums.InterestType;
 import com.tripfactory.nomad.domain.enums.WeekendType;
@@ -52,6 +54,15 @@ public class TripGroup {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Maintained only by TripGroupRepository's atomic increment/decrement; entity saves never write it
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long memberCount;
+
+    // Set while the group accepts members; unique so only one joinable group exists per matching key
+    @Column(unique = true, updatable = false)
+    private String openKey;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
@@ -2,6 +2,10 @@ package com.tripfactory.nomad.domain.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import com.tripfactory.nomad.domain.enums.InterestType;
 import com.tripfactory.nomad.domain.enums.TravelPreference;
 import com.tripfactory.nomad.domain.enums.UserRole;
@@ -23,6 +27,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 public class User {
 
@@ -63,6 +68,10 @@ public class User {
     @Column(nullable = false)
     private UserRole role;
 
+    // Tokens carry the version they were issued with; bumping it revokes every token issued before
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int tokenVersion;
 
     @Column
     private String profilePhotoUrl;
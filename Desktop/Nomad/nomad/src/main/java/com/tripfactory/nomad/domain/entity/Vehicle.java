@@ -1,5 +1,8 @@
 package com.tripfactory.nomad.domain.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.tripfactory.nomad.domain.enums.AvailabilityStatus;
 import com.tripfactory.nomad.domain.enums.VehicleType;
 
@@ -19,6 +22,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
 @Table(name = "vehicles")
 public class Vehicle {
 
@@ -0,0 +1,6 @@
+package com.tripfactory.nomad.domain.enums;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
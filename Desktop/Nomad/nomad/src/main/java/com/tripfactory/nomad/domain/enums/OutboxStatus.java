@@ -0,0 +1,10 @@
+package com.tripfactory.nomad.domain.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    // Handed to a node's SMS queue; its lease is renewed until the send settles, so it is only claimed again
+    // if that node stops renewing it
+    QUEUED,
+    SENT,
+    FAILED
+}
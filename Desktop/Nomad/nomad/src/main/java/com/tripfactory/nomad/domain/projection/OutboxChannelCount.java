@@ -0,0 +1,15 @@
+package com.tripfactory.nomad.domain.projection;
+
+import com.tripfactory.nomad.domain.enums.NotificationChannel;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** How many outbox messages of one channel are in a given status. */
+@Getter
+@RequiredArgsConstructor
+public final class OutboxChannelCount {
+
+    private final NotificationChannel channel;
+    private final long count;
+}
@@ -0,0 +1,29 @@
+package com.tripfactory.nomad.domain.projection;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The columns of a {@link Place} that planning and ranking need. Selected with a JPQL constructor expression,
+ * so rows skip the description, image and opening-hours columns and are never managed by the persistence context.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class PlaceSummary {
+
+    private final Long id;
+    private final String name;
+    private final String city;
+    private final Double latitude;
+    private final Double longitude;
+    private final InterestType category;
+    private final Double rating;
+
+    public static PlaceSummary of(Place place) {
+        return new PlaceSummary(place.getId(), place.getName(), place.getCity(), place.getLatitude(),
+                place.getLongitude(), place.getCategory(), place.getRating());
+    }
+}
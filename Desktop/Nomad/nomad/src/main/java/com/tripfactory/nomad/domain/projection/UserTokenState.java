@@ -0,0 +1,22 @@
+package com.tripfactory.nomad.domain.projection;
+
+import com.tripfactory.nomad.domain.enums.UserRole;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The user columns a token's claims are checked against: a token stays valid only while its version, role
+ * and email all still match.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class UserTokenState {
+
+    /** Stands in for a user that no longer exists, so their tokens are rejected. */
+    public static final UserTokenState UNKNOWN = new UserTokenState(-1, null, null);
+
+    private final int tokenVersion;
+    private final UserRole role;
+    private final String email;
+}
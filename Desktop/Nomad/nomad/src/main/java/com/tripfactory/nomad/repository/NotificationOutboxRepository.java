@@ -0,0 +1,46 @@
+package com.tripfactory.nomad.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.tripfactory.nomad.domain.entity.NotificationOutbox;
+import com.tripfactory.nomad.domain.enums.OutboxStatus;
+import com.tripfactory.nomad.domain.projection.OutboxChannelCount;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /** Due messages, oldest first; rows another dispatcher has locked are skipped rather than waited on. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from NotificationOutbox o where o.status in :statuses and o.nextAttemptAt <= :now order by o.id")
+    List<NotificationOutbox> findDueForUpdate(@Param("statuses") Collection<OutboxStatus> statuses,
+            @Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("update NotificationOutbox o set o.nextAttemptAt = :leaseEnd where o.id in :ids and o.status = :status")
+    int extendLease(@Param("ids") Collection<Long> ids, @Param("status") OutboxStatus status,
+            @Param("leaseEnd") Instant leaseEnd);
+
+    long countByStatus(OutboxStatus status);
+
+    /** One row per channel that has messages in {@code status}; channels with none are left out. */
+    @Query("select new com.tripfactory.nomad.domain.projection.OutboxChannelCount(o.channel, count(o))"
+            + " from NotificationOutbox o where o.status = :status group by o.channel")
+    List<OutboxChannelCount> countByChannel(@Param("status") OutboxStatus status);
+
+    @Modifying
+    @Query("delete from NotificationOutbox o where o.status = :status and o.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboxStatus status, @Param("before") Instant before);
+}
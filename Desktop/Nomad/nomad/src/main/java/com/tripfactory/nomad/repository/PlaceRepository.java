@@ -1,12 +1,43 @@
 package com.tripfactory.nomad.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+
+import jakarta.persistence.QueryHint;
 
 public interface PlaceRepository extends JpaRepository<Place, Long> {
 
-    List<Place> findByCityIgnoreCase(String city);
-}
\ No newline at end of file
+    String SUMMARY = "SELECT new com.tripfactory.nomad.domain.projection.PlaceSummary("
+            + "p.id, p.name, p.city, p.latitude, p.longitude, p.category, p.rating) FROM Place p";
+
+    @Query(SUMMARY + " WHERE UPPER(p.city) = UPPER(:city)")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "places-by-city") })
+    List<PlaceSummary> findSummariesByCity(@Param("city") String city);
+
+    @Query(SUMMARY)
+    List<PlaceSummary> findAllSummaries();
+
+    @Query(SUMMARY + " WHERE p.id IN :ids")
+    List<PlaceSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Places inside a lat/lon envelope; served by the (latitude, longitude) index. */
+    @Query(SUMMARY + " WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLon AND :maxLon")
+    List<PlaceSummary> findInBoundingBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    @Query(SUMMARY + " WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLon AND :maxLon"
+            + " AND UPPER(p.city) = UPPER(:city) ORDER BY p.id")
+    List<PlaceSummary> findByCityInBoundingBox(@Param("city") String city, @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat, @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+}
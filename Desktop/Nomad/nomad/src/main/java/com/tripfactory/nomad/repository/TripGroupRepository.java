@@ -1,9 +1,13 @@
 package com.tripfactory.nomad.repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tripfactory.nomad.domain.entity.TripGroup;
 import com.tripfactory.nomad.domain.enums.GroupStatus;
@@ -17,4 +21,55 @@ public interface TripGroupRepository extends JpaRepository<TripGroup, Long> {
 
     Optional<TripGroup> findFirstByCityIgnoreCaseAndInterestAndWeekendTypeAndTravelDateAndStatusOrderByCreatedAtAsc(
             String city, InterestType interest, WeekendType weekendType, LocalDate travelDate, GroupStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TripGroup g set g.memberCount = g.memberCount - 1 where g.id = :groupId and g.memberCount > 0")
+    int decrementMemberCount(@Param("groupId") Long groupId);
+
+    @Query("select g.id from TripGroup g where g.openKey = :openKey")
+    Optional<Long> findIdByOpenKey(@Param("openKey") String openKey);
+
+    /** Takes a seat only while the group is joinable and below {@code capacity}; returns 0 when it is not. */
+    @Modifying(flushAutomatically = true)
+    @Query("update TripGroup g set g.memberCount = g.memberCount + 1"
+            + " where g.id = :groupId and g.openKey is not null and g.memberCount < :capacity")
+    int claimSeat(@Param("groupId") Long groupId, @Param("capacity") long capacity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TripGroup g set g.status = :status, g.openKey = null where g.id = :groupId")
+    int markFull(@Param("groupId") Long groupId, @Param("status") GroupStatus status);
+
+    @Query("select g.memberCount from TripGroup g where g.id = :groupId")
+    Optional<Long> findMemberCountById(@Param("groupId") Long groupId);
+
+    /** Dated groups in {@code status} with room but no open key, oldest first, e.g. rows that predate the key. */
+    @Query("select g from TripGroup g where g.status = :status and g.openKey is null and g.travelDate is not null"
+            + " and g.memberCount < :readySize order by g.createdAt, g.id")
+    List<TripGroup> findUnkeyedOpenGroups(@Param("status") GroupStatus status, @Param("readySize") long readySize);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TripGroup g set g.openKey = :openKey"
+            + " where g.id = :groupId and g.openKey is null and g.status = :status")
+    int assignOpenKey(@Param("groupId") Long groupId, @Param("openKey") String openKey,
+            @Param("status") GroupStatus status);
+
+    /**
+     * Makes a filled group that fell back below {@code readySize} joinable again under {@code openKey}. Throws
+     * when another group already holds the key.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update TripGroup g set g.status = :status, g.openKey = :openKey"
+            + " where g.id = :groupId and g.openKey is null and g.memberCount < :readySize")
+    int reopen(@Param("groupId") Long groupId, @Param("openKey") String openKey, @Param("status") GroupStatus status,
+            @Param("readySize") long readySize);
+
+    /**
+     * Recounts groups that have members but no maintained count yet, e.g. rows created before the column existed.
+     * Cancelled trips stay linked to their group but hold no seat.
+     */
+    @Modifying
+    @Query("update TripGroup g set g.memberCount = (select count(tr) from TripRequest tr where tr.group.id = g.id"
+            + " and tr.status <> com.tripfactory.nomad.domain.enums.TripStatus.CANCELLED)"
+            + " where g.memberCount = 0 and exists (select tr.id from TripRequest tr where tr.group.id = g.id)")
+    int backfillMemberCounts();
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.tripfactory.nomad.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +12,11 @@ public interface TripPlanRepository extends JpaRepository<TripPlan, Long> {
 
     @Query("SELECT tp FROM TripPlan tp JOIN FETCH tp.place WHERE tp.tripRequest.id = :tripRequestId ORDER BY tp.dayNumber ASC, tp.startTime ASC")
     List<TripPlan> findByTripRequestIdOrderByDayNumberAscStartTimeAsc(@Param("tripRequestId") Long tripRequestId);
+
+    /** Plans of several trips in one query, ordered per trip like the single-trip lookup. */
+    @Query("SELECT tp FROM TripPlan tp JOIN FETCH tp.place WHERE tp.tripRequest.id IN :tripRequestIds"
+            + " ORDER BY tp.tripRequest.id ASC, tp.dayNumber ASC, tp.startTime ASC")
+    List<TripPlan> findByTripRequestIdIn(@Param("tripRequestIds") Collection<Long> tripRequestIds);
     
     void deleteByTripRequest(TripRequest tripRequest);
 }
\ No newline at end of file
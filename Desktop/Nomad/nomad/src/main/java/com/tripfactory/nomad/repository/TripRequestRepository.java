@@ -1,27 +1,43 @@
 package com.tripfactory.nomad.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.tripfactory.nomad.domain.entity.TripRequest;
+import com.tripfactory.nomad.domain.enums.TripStatus;
 
 public interface TripRequestRepository extends JpaRepository<TripRequest, Long> {
 
     List<TripRequest> findByUserId(Long userId);
 
+    /** First page of a user's trips, newest first; keyset pagination continues with the id-bounded variant. */
+    List<TripRequest> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    List<TripRequest> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long beforeId, Pageable pageable);
+
     List<TripRequest> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     Optional<TripRequest> findByShareToken(String shareToken);
 
-    long countByGroupId(Long groupId);
+    /** Owner of a trip, read from the foreign key without loading the trip or its user. */
+    @Query("select tr.user.id from TripRequest tr where tr.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
 
     boolean existsByGroupIdAndUserId(Long groupId, Long userId);
 
     @Query("select tr from TripRequest tr join fetch tr.user where tr.group.id = :groupId order by tr.createdAt asc")
     List<TripRequest> findGroupMembers(@Param("groupId") Long groupId);
-}
\ No newline at end of file
+
+    /** Moves the trip to {@code to} only while it is in one of {@code from}; returns 0 when it was not. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TripRequest tr set tr.status = :to where tr.id = :id and tr.status in :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") Collection<TripStatus> from,
+            @Param("to") TripStatus to);
+}
@@ -3,10 +3,26 @@ package com.tripfactory.nomad.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.projection.UserTokenState;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+	/**
+	 * Not query-cached: any write to the users table, such as a token-version bump or a rehash on login, would
+	 * invalidate every cached lookup, so this reads the unique email index directly.
+	 */
 	Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+	@Query("SELECT new com.tripfactory.nomad.domain.projection.UserTokenState(u.tokenVersion, u.role, u.email)"
+			+ " FROM User u WHERE u.id = :id")
+	Optional<UserTokenState> findTokenStateById(@Param("id") Long id);
+
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+	int incrementTokenVersion(@Param("id") Long id);
+}
@@ -2,13 +2,20 @@ package com.tripfactory.nomad.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.tripfactory.nomad.domain.entity.Vehicle;
 import com.tripfactory.nomad.domain.enums.AvailabilityStatus;
 import com.tripfactory.nomad.domain.enums.VehicleType;
 
+import jakarta.persistence.QueryHint;
+
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vehicles-available") })
     List<Vehicle> findByAvailabilityStatusAndVehicleTypeIn(AvailabilityStatus status, List<VehicleType> types);
 }
\ No newline at end of file
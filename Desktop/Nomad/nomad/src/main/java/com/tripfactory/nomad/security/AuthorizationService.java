@@ -1,16 +1,11 @@
 package com.tripfactory.nomad.security;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import com.tripfactory.nomad.domain.entity.TripRequest;
-import com.tripfactory.nomad.domain.entity.User;
 import com.tripfactory.nomad.domain.enums.PaymentStatus;
 import com.tripfactory.nomad.domain.enums.UserRole;
 import com.tripfactory.nomad.repository.PaymentRepository;
 import com.tripfactory.nomad.repository.TripRequestRepository;
-import com.tripfactory.nomad.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,26 +13,25 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthorizationService {
 
-    private final UserRepository userRepository;
     private final TripRequestRepository tripRequestRepository;
     private final PaymentRepository paymentRepository;
+    private final TripOwnerIndex tripOwnerIndex;
 
     public boolean canAccessUser(Long userId) {
-        User current = getCurrentUser();
+        UserPrincipal current = getCurrentUser();
         return current != null && (current.getRole() == UserRole.ADMIN || current.getId().equals(userId));
     }
 
     public boolean canAccessTrip(Long tripRequestId) {
         if (tripRequestId == null) return false;
-        User current = getCurrentUser();
+        UserPrincipal current = getCurrentUser();
         if (current == null) {
             return false;
         }
         if (current.getRole() == UserRole.ADMIN) {
             return true;
         }
-        TripRequest trip = tripRequestRepository.findById(tripRequestId).orElse(null);
-        return trip != null && trip.getUser().getId().equals(current.getId());
+        return tripOwnerIndex.ownerOf(tripRequestId).filter(current.getId()::equals).isPresent();
     }
 
     /** Only the user who booked (trip owner with successful payment) can submit a trip review. */
@@ -48,7 +42,7 @@ public class AuthorizationService {
     }
 
     public boolean canAccessGroup(Long groupId) {
-        User current = getCurrentUser();
+        UserPrincipal current = getCurrentUser();
         if (current == null) {
             return false;
         }
@@ -59,16 +53,12 @@ public class AuthorizationService {
     }
 
     public Long getCurrentUserId() {
-        User user = getCurrentUser();
+        UserPrincipal user = getCurrentUser();
         return user != null ? user.getId() : null;
     }
 
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal() == null) {
-            return null;
-        }
-        String email = auth.getName();
-        return userRepository.findByEmail(email).orElse(null);
+    /** The principal built from the request's token; user id and role are read without touching the database. */
+    private UserPrincipal getCurrentUser() {
+        return UserPrincipal.current().orElse(null);
     }
 }
\ No newline at end of file
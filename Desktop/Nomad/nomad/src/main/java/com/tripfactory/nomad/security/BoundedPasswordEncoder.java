@@ -0,0 +1,142 @@
+package com.tripfactory.nomad.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tripfactory.nomad.service.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * BCrypt on a dedicated, bounded pool, so a burst of sign-ins queues here instead of tying up every request
+ * thread with hashing. Work beyond the queue, or still waiting after {@code timeout}, is refused at once with
+ * {@link ServiceBusyException}; work whose caller has given up is dropped from the queue, and never started if it
+ * reaches a thread anyway. Hashes made with a lower cost than the configured one are reported for upgrade, which
+ * Spring Security uses to rehash the password on the next successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout,
+            MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, timeout, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.timeoutNanos = timeout.toNanos();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTime = Timer.builder("nomad.auth.password-hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTime = Timer.builder("nomad.auth.password-hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("nomad.auth.password-hash.rejected").register(meterRegistry);
+        Gauge.builder("nomad.auth.password-hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTime.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTime.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * True for a BCrypt hash with a lower cost than the configured one; hashes with a higher cost are kept, so
+     * lowering the setting never weakens stored passwords. An upgrade costs a second hash, so it is deferred to
+     * a later login while requests are already queued for the pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = cost(encodedPassword);
+        return cost > 0 && cost < strength && executor.getQueue().isEmpty();
+    }
+
+    /** The cost of a {@code $2a$NN$...} hash, or -1 if it is not one. */
+    static int cost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char ones = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private <T> T run(Supplier<T> hash) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                // Hashing cannot be interrupted once started, so work whose caller already gave up is skipped
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new CancellationException("Caller stopped waiting");
+                }
+                return hash.get();
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+        try {
+            return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            // Free the queue slot now rather than when a thread reaches the cancelled task
+            executor.remove((Runnable) result);
+            throw busy();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        rejected.increment();
+        return new ServiceBusyException("Too many sign-ins in progress, please retry shortly");
+    }
+}
@@ -4,8 +4,6 @@ import java.io.IOException;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,41 +19,28 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        System.out.println("[JWT FILTER] Authorization header: " + authHeader);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("[JWT FILTER] No Bearer token found");
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authHeader.substring(7);
-        System.out.println("[JWT FILTER] Token: " + token);
-        if (!jwtService.isTokenValid(token)) {
-            System.out.println("[JWT FILTER] Invalid token");
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        String email = jwtService.extractSubject(token);
-        System.out.println("[JWT FILTER] Extracted email: " + email);
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        // Invalid, expired or revoked tokens leave the request unauthenticated; the security rules decide what it
+        // may reach. The principal comes from the token's claims, so authentication never reads the database.
+        UserPrincipal principal = jwtService.verify(authHeader.substring(7)).map(UserPrincipal::fromClaims).orElse(null);
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+                    principal, null, principal.getAuthorities());
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
-            System.out.println("[JWT FILTER] Authenticated user: " + userDetails.getUsername());
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,175 @@
+package com.tripfactory.nomad.security;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripfactory.nomad.api.error.ApiError;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+
+/**
+ * Applies the first matching route group's token bucket, keyed by the authenticated user or, for anonymous
+ * requests, the client address. Runs after {@link JwtAuthenticationFilter} so the user is known. Requests
+ * over the limit get 429 with {@code Retry-After} in whole seconds.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Route> routes;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(List<Route> routes, ObjectMapper objectMapper) {
+        this.routes = List.copyOf(routes);
+        this.objectMapper = objectMapper;
+    }
+
+    /** Drops every route's refilled buckets, which keeps memory proportional to recently active clients. */
+    @Scheduled(fixedDelayString = "${nomad.rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        for (Route route : routes) {
+            route.getLimiter().evictIdle();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = route.getLimiter().tryAcquire(clientKey(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        route.getRejected().increment();
+        reject(response, Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private Route match(HttpServletRequest request) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer path = null;
+        for (Route route : routes) {
+            if (!route.coversMethod(request.getMethod()) || !uri.startsWith(route.getPrefix())) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(uri);
+            }
+            if (route.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        // The container's remote address; behind a proxy, set server.forward-headers-strategy so it is the client's
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        ApiError error = new ApiError();
+        error.setMessage("Too many requests, retry in " + retryAfterSeconds + "s");
+        error.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        error.setTimestamp(LocalDateTime.now());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /** A route group: the paths (and optionally methods) it covers and the bucket per client behind them. */
+    @Getter
+    public static class Route {
+
+        private final String name;
+        private final List<PathPattern> paths;
+        /** Empty means every method. */
+        private final Set<String> methods;
+        private final TokenBucketLimiter limiter;
+        private final Counter rejected;
+        /** Literal start shared by all the paths, so most requests are ruled out without parsing their path. */
+        private final String prefix;
+
+        public Route(String name, List<PathPattern> paths, Set<String> methods, TokenBucketLimiter limiter,
+                Counter rejected) {
+            this.name = name;
+            this.paths = List.copyOf(paths);
+            this.methods = Set.copyOf(methods);
+            this.limiter = limiter;
+            this.rejected = rejected;
+            this.prefix = commonLiteralPrefix(this.paths);
+        }
+
+        boolean coversMethod(String method) {
+            return methods.isEmpty() || methods.contains(method);
+        }
+
+        boolean matches(PathContainer path) {
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String commonLiteralPrefix(List<PathPattern> paths) {
+            String prefix = null;
+            for (PathPattern pattern : paths) {
+                String text = pattern.getPatternString();
+                int wildcard = indexOfAny(text, "*?{");
+                String literal = wildcard < 0 ? text : text.substring(0, wildcard);
+                prefix = prefix == null ? literal : commonPrefix(prefix, literal);
+            }
+            return prefix == null ? "" : prefix;
+        }
+
+        private static int indexOfAny(String text, String chars) {
+            for (int i = 0; i < text.length(); i++) {
+                if (chars.indexOf(text.charAt(i)) >= 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String commonPrefix(String a, String b) {
+            int i = 0;
+            while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return a.substring(0, i);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.tripfactory.nomad.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets. A bucket is a single {@link AtomicLong} holding the time at which it will be full
+ * again (the GCRA form of a token bucket), so taking a token is one map lookup and one compare-and-set, and
+ * never blocks. A bucket that has refilled is indistinguishable from a new one, so {@link #evictIdle()} drops
+ * those; once {@code maxKeys} buckets are live, further keys share one overflow bucket until a sweep frees room.
+ */
+public class TokenBucketLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final long maxKeys;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong();
+
+    public TokenBucketLimiter(long capacity, double permitsPerSecond, long maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || !(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and permits-per-second > 0");
+        }
+        this.nanosPerToken = Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+        this.burstNanos = Math.multiplyExact(nanosPerToken, capacity);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token from {@code key}'s bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = bucket(key);
+        while (true) {
+            long now = nanoClock.getAsLong() - origin;
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled. A request racing with the sweep may spend a token from a bucket as it
+     * is dropped, so a key can gain at most one extra token per sweep.
+     *
+     * @return the number of buckets still live
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong() - origin;
+        buckets.values().removeIf(fullAt -> fullAt.get() <= now);
+        return buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key) {
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt != null) {
+            return fullAt;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong());
+    }
+}
@@ -0,0 +1,54 @@
+package com.tripfactory.nomad.security;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.tripfactory.nomad.repository.TripRequestRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Trip id to owner id, for ownership checks on trip-scoped endpoints. A trip's owner never changes, so entries
+ * need no invalidation; misses read the owner column alone and unknown trips are not cached.
+ */
+@Component
+public class TripOwnerIndex {
+
+    static final String CACHE_NAME = "tripOwners";
+
+    private final LoadingCache<Long, Long> owners;
+
+    public TripOwnerIndex(TripRequestRepository tripRequestRepository, MeterRegistry meterRegistry,
+            @Value("${nomad.authz.trip-owners.max-size:100000}") long maxSize) {
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(tripId -> tripRequestRepository.findOwnerIdById(tripId).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, owners, CACHE_NAME);
+    }
+
+    public Optional<Long> ownerOf(long tripId) {
+        return Optional.ofNullable(owners.get(tripId));
+    }
+
+    /** Records the owner of a newly created trip, once the creating transaction commits. */
+    public void recordOwner(long tripId, long ownerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            owners.put(tripId, ownerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                owners.put(tripId, ownerId);
+            }
+        });
+    }
+}
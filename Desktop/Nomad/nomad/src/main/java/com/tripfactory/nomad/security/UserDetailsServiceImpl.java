@@ -1,9 +1,11 @@
 package com.tripfactory.nomad.security;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tripfactory.nomad.repository.UserRepository;
 
@@ -11,7 +13,7 @@ import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -21,4 +23,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .map(UserPrincipal::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    /** Stores a password rehashed at login, e.g. after the BCrypt cost was changed. */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return userRepository.findByEmail(user.getUsername())
+                .map(entity -> {
+                    entity.setPasswordHash(newPassword);
+                    return new UserPrincipal(entity);
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
 }
\ No newline at end of file
@@ -2,34 +2,77 @@ package com.tripfactory.nomad.security;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.UserRole;
+import com.tripfactory.nomad.service.jwt.JwtService;
 
+import io.jsonwebtoken.Claims;
+
+/**
+ * The authenticated user. Built from the {@link User} at login, and from the verified token's claims on every
+ * other request, in which case there is no password hash and no database read.
+ */
 public class UserPrincipal implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+    private final String passwordHash;
 
     public UserPrincipal(User user) {
-        this.user = user;
+        this(user.getId(), user.getEmail(), user.getRole(), user.getPasswordHash());
+    }
+
+    public UserPrincipal(Long id, String email, UserRole role, String passwordHash) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.passwordHash = passwordHash;
+    }
+
+    public static UserPrincipal fromClaims(Claims claims) {
+        return new UserPrincipal(claims.get(JwtService.CLAIM_USER_ID, Long.class), claims.getSubject(),
+                UserRole.valueOf(claims.get(JwtService.CLAIM_ROLE, String.class)), null);
+    }
+
+    /** The principal of the current request, if it was authenticated with a token or at login. */
+    public static Optional<UserPrincipal> current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof UserPrincipal principal)) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPasswordHash();
+        return passwordHash;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -51,8 +94,4 @@ public class UserPrincipal implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
-
-    public User getUser() {
-        return user;
-    }
-}
\ No newline at end of file
+}
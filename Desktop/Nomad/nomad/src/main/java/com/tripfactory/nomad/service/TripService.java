@@ -20,6 +20,9 @@ public interface TripService {
 
     List<TripResponse> getTripsByUser(Long userId);
 
+    /** One page of a user's trips, newest first, strictly older than {@code beforeId} when given. */
+    List<TripResponse> getTripsByUser(Long userId, Long beforeId, int limit);
+
     /** Cancel a trip if status is REQUESTED or PAYMENT_PENDING. Sets status to CANCELLED. */
     TripResponse cancelTrip(Long tripRequestId);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.tripfactory.nomad.service.event;
+
+import com.tripfactory.nomad.domain.entity.Place;
+
+import lombok.Getter;
+
+/**
+ * Published whenever a place is added to or removed from the catalog so that
+ * in-memory views over places (spatial index, planner snapshots, caches) can refresh.
+ */
+@Getter
+public class PlaceCatalogChangedEvent {
+
+    public enum Change {
+        ADDED,
+        REMOVED
+    }
+
+    private final Place place;
+    private final Change change;
+
+    private PlaceCatalogChangedEvent(Place place, Change change) {
+        this.place = place;
+        this.change = change;
+    }
+
+    public static PlaceCatalogChangedEvent added(Place place) {
+        return new PlaceCatalogChangedEvent(place, Change.ADDED);
+    }
+
+    public static PlaceCatalogChangedEvent removed(Place place) {
+        return new PlaceCatalogChangedEvent(place, Change.REMOVED);
+    }
+
+    public String getCity() {
+        return place.getCity();
+    }
+}
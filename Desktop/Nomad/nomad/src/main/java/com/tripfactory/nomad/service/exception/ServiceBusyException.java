@@ -0,0 +1,8 @@
+package com.tripfactory.nomad.service.exception;
+
+/** The work was refused because a bounded resource is saturated; the client should retry shortly. */
+public class ServiceBusyException extends RuntimeException {
+	public ServiceBusyException(String message) {
+		super(message);
+	}
+}
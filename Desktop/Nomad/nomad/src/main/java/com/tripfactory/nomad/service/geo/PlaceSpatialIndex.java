@@ -0,0 +1,265 @@
+package com.tripfactory.nomad.service.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory uniform lat/lon grid over place coordinates. Answers radius + top-K queries by
+ * visiting only the grid cells that overlap the query envelope instead of the whole catalog.
+ * Loaded once the application is ready and kept current through {@link PlaceCatalogChangedEvent}.
+ * Those events are local, so edits made on another node only show up here when the whole grid is reloaded,
+ * every {@code nomad.places.spatial-index.refresh}; that interval bounds how stale this node's view can be.
+ */
+@Component
+public class PlaceSpatialIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlaceSpatialIndex.class);
+
+    /** Cell edge in degrees (~5.5 km of latitude). */
+    static final double CELL_DEGREES = 0.05;
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final PlaceRepository placeRepository;
+    // Replaced as a whole on rebuild, so a query sees either the old grid or the new one; null until loaded
+    private volatile Grid grid;
+
+    public PlaceSpatialIndex(PlaceRepository placeRepository) {
+        this.placeRepository = placeRepository;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Entry {
+        private final long id;
+        private final String cityKey;
+        private final double latitude;
+        private final double longitude;
+        private final InterestType category;
+        private final double rating;
+    }
+
+    /** Immutable cell contents; coordinates are kept in parallel primitive arrays for the batch distance kernel. */
+    private static final class Cell {
+        private final Entry[] entries;
+        private final double[] lats;
+        private final double[] lons;
+
+        private Cell(Entry[] entries) {
+            this.entries = entries;
+            this.lats = new double[entries.length];
+            this.lons = new double[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                lats[i] = entries[i].latitude;
+                lons[i] = entries[i].longitude;
+            }
+        }
+
+        private Cell with(Entry entry) {
+            Entry[] merged = Arrays.copyOf(entries, entries.length + 1);
+            merged[entries.length] = entry;
+            return new Cell(merged);
+        }
+
+        private Cell without(long id) {
+            Entry[] remaining = Arrays.stream(entries).filter(e -> e.id != id).toArray(Entry[]::new);
+            return remaining.length == 0 ? null : new Cell(remaining);
+        }
+    }
+
+    /** One generation of the index. Events update its cells one at a time; a rebuild replaces the whole grid. */
+    private static final class Grid {
+        private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+        private void insert(Entry entry) {
+            byId.put(entry.id, entry);
+            long key = cellKey(latIndex(entry.latitude), lonIndex(entry.longitude));
+            cells.compute(key, (k, cell) -> cell == null ? new Cell(new Entry[] { entry }) : cell.with(entry));
+        }
+
+        private void remove(long placeId) {
+            Entry existing = byId.remove(placeId);
+            if (existing == null) {
+                return;
+            }
+            long key = cellKey(latIndex(existing.latitude), lonIndex(existing.longitude));
+            cells.computeIfPresent(key, (k, cell) -> cell.without(existing.id));
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Hit {
+        private final Entry entry;
+        private final double distanceKm;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Grid fresh = new Grid();
+        Map<Long, List<Entry>> grouped = new HashMap<>();
+        for (PlaceSummary place : placeRepository.findAllSummaries()) {
+            Entry entry = toEntry(place);
+            fresh.byId.put(entry.id, entry);
+            grouped.computeIfAbsent(cellKey(latIndex(entry.latitude), lonIndex(entry.longitude)), k -> new ArrayList<>())
+                    .add(entry);
+        }
+        grouped.forEach((key, entries) -> fresh.cells.put(key, new Cell(entries.toArray(new Entry[0]))));
+        grid = fresh;
+        LOGGER.info("Place spatial index loaded: {} places in {} cells", fresh.byId.size(), fresh.cells.size());
+    }
+
+    /** Reloads the grid so that places added or removed on other nodes are picked up. */
+    @Scheduled(fixedDelayString = "${nomad.places.spatial-index.refresh:PT10M}",
+            initialDelayString = "${nomad.places.spatial-index.refresh:PT10M}")
+    public void refresh() {
+        if (grid != null) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(PlaceCatalogChangedEvent event) {
+        if (event.getChange() == PlaceCatalogChangedEvent.Change.ADDED) {
+            add(event.getPlace());
+        } else {
+            remove(event.getPlace().getId());
+        }
+    }
+
+    /** Ignored until the grid is first loaded, since that load reads the place from the catalog anyway. */
+    public synchronized void add(Place place) {
+        Grid current = grid;
+        if (current == null || place.getId() == null || place.getLatitude() == null || place.getLongitude() == null) {
+            return;
+        }
+        current.remove(place.getId());
+        current.insert(toEntry(PlaceSummary.of(place)));
+    }
+
+    public synchronized void remove(Long placeId) {
+        Grid current = grid;
+        if (current != null && placeId != null) {
+            current.remove(placeId);
+        }
+    }
+
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    public int size() {
+        Grid current = grid;
+        return current == null ? 0 : current.byId.size();
+    }
+
+    /**
+     * Returns at most {@code limit} places within {@code radiusKm} of the origin, optionally restricted to a
+     * city, ordered by {@code order}. Only cells overlapping the radius envelope are visited.
+     */
+    public List<Hit> query(String city, double lat, double lon, double radiusKm, int limit, Comparator<Hit> order) {
+        Grid current = grid;
+        if (current == null || limit <= 0 || radiusKm < 0) {
+            return List.of();
+        }
+        String cityKey = city == null || city.isBlank() ? null : normalizeCity(city);
+        PriorityQueue<Hit> worstFirst = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+        double[] distances = new double[0];
+        for (Cell cell : candidateCells(current.cells, lat, lon, radiusKm)) {
+            int count = cell.entries.length;
+            if (distances.length < count) {
+                distances = new double[count];
+            }
+            GeoUtils.haversineKm(lat, lon, cell.lats, cell.lons, distances, count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = cell.entries[i];
+                if (distances[i] > radiusKm || (cityKey != null && !cityKey.equals(entry.cityKey))) {
+                    continue;
+                }
+                Hit hit = new Hit(entry, distances[i]);
+                if (worstFirst.size() < limit) {
+                    worstFirst.add(hit);
+                } else if (order.compare(hit, worstFirst.peek()) < 0) {
+                    worstFirst.poll();
+                    worstFirst.add(hit);
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(worstFirst);
+        hits.sort(order);
+        return hits;
+    }
+
+    private static List<Cell> candidateCells(Map<Long, Cell> cells, double lat, double lon, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int minLat = latIndex(lat - latSpan);
+        int maxLat = latIndex(lat + latSpan);
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + latSpan)));
+        double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(cosLat, 1e-6));
+        int lonCount = lonSpan >= 180 ? LON_CELLS : Math.min(LON_CELLS, 2 * (int) Math.ceil(lonSpan / CELL_DEGREES) + 1);
+        long visited = (long) (maxLat - minLat + 1) * lonCount;
+        if (visited >= cells.size()) {
+            return new ArrayList<>(cells.values());
+        }
+        int firstLon = lonCount == LON_CELLS ? 0 : lonIndex(lon - lonSpan);
+        List<Cell> result = new ArrayList<>();
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int i = 0; i < lonCount; i++) {
+                Cell cell = cells.get(cellKey(latIdx, (firstLon + i) % LON_CELLS));
+                if (cell != null) {
+                    result.add(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Entry toEntry(PlaceSummary place) {
+        return new Entry(place.getId(), normalizeCity(place.getCity()), place.getLatitude(), place.getLongitude(),
+                place.getCategory(), place.getRating() != null ? place.getRating() : 0.0);
+    }
+
+    public static String normalizeCity(String city) {
+        return city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int latIndex(double lat) {
+        int idx = (int) Math.floor((lat + 90) / CELL_DEGREES);
+        return Math.max(0, Math.min(LAT_CELLS - 1, idx));
+    }
+
+    private static int lonIndex(double lon) {
+        int idx = (int) Math.floor((lon + 180) / CELL_DEGREES) % LON_CELLS;
+        return idx < 0 ? idx + LON_CELLS : idx;
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+}
@@ -0,0 +1,210 @@
+package com.tripfactory.nomad.service.group;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.enums.GroupStatus;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Seats trips in groups keyed by (city, interest, weekendType, travelDate).
+ * <p>
+ * Correctness comes from the database: at most one joinable group per key exists because
+ * {@code trip_groups.open_key} is unique and cleared once a group fills, and a seat is taken by a conditional
+ * UPDATE that only succeeds while the group is still joinable and below {@link #MAX_SIZE}. Striped in-process
+ * locks only keep same-key requests on one node from racing each other into those guards. Each seat is taken in
+ * its own short transaction, so the group row is locked for a couple of statements rather than for the whole
+ * booking. Callers join before their booking transaction opens and {@link #leave} if the booking then fails:
+ * joining from inside a transaction would hold one pooled connection while waiting for a second, so a full
+ * pool of such callers (each also holding a lock stripe) could never make progress.
+ */
+@Component
+public class GroupMatchingEngine {
+
+    /** A group stops accepting members and becomes READY at this size. */
+    public static final int READY_SIZE = 4;
+    /** Hard cap enforced by the seat UPDATE; a group at this size is CLOSED. */
+    public static final int MAX_SIZE = 6;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final TripGroupRepository tripGroupRepository;
+    private final TransactionTemplate seatTransaction;
+    private final ReentrantLock[] stripes;
+
+    public GroupMatchingEngine(TripGroupRepository tripGroupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${nomad.groups.lock-stripes:64}") int lockStripes) {
+        this.tripGroupRepository = tripGroupRepository;
+        this.seatTransaction = new TransactionTemplate(transactionManager);
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Seat {
+        private final long groupId;
+        /** Group size right after this seat was taken. */
+        private final long memberCount;
+    }
+
+    /**
+     * Takes a seat in the joinable group for the key, opening a new group when none has room. Must be called
+     * outside any transaction; the seat is committed when this returns.
+     */
+    public Seat join(String city, InterestType interest, WeekendType weekendType, LocalDate travelDate) {
+        requireNoTransaction();
+        String openKey = openKey(city, interest, weekendType, travelDate);
+        Seat seat = null;
+        ReentrantLock lock = stripeFor(openKey);
+        lock.lock();
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && seat == null; attempt++) {
+                seat = tryJoinOpen(openKey);
+                if (seat == null) {
+                    seat = tryOpen(openKey, city, interest, weekendType, travelDate);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (seat == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Could not assign a trip group, try again");
+        }
+        return seat;
+    }
+
+    /**
+     * The joinable group for the key, opening an empty one when there is none, e.g. for a group set up ahead of
+     * bookings. Must be called outside any transaction.
+     */
+    public TripGroup open(String city, InterestType interest, WeekendType weekendType, LocalDate travelDate) {
+        requireNoTransaction();
+        String openKey = openKey(city, interest, weekendType, travelDate);
+        ReentrantLock lock = stripeFor(openKey);
+        lock.lock();
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                Optional<TripGroup> existing = seatTransaction.execute(status ->
+                        tripGroupRepository.findIdByOpenKey(openKey).flatMap(tripGroupRepository::findById));
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+                TripGroup created = tryCreate(openKey, city, interest, weekendType, travelDate, 0);
+                if (created != null) {
+                    return created;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Could not open a trip group, try again");
+    }
+
+    /**
+     * Gives a seat back, e.g. when the booking that took it did not commit or the trip was cancelled. A group
+     * that had filled and drops below {@link #READY_SIZE} becomes joinable again, unless another group has
+     * opened for its key meanwhile: that one keeps the key and the old group stays as it is. Must be called
+     * outside any transaction.
+     */
+    public void leave(long groupId) {
+        requireNoTransaction();
+        TripGroup group = seatTransaction.execute(status -> {
+            tripGroupRepository.decrementMemberCount(groupId);
+            return tripGroupRepository.findById(groupId).orElse(null);
+        });
+        if (group == null || group.getOpenKey() != null || group.getTravelDate() == null
+                || group.getMemberCount() >= READY_SIZE) {
+            return;
+        }
+        String openKey = openKey(group.getCity(), group.getInterest(), group.getWeekendType(), group.getTravelDate());
+        ReentrantLock lock = stripeFor(openKey);
+        lock.lock();
+        try {
+            seatTransaction.executeWithoutResult(status -> {
+                if (tripGroupRepository.findIdByOpenKey(openKey).isEmpty()) {
+                    tripGroupRepository.reopen(groupId, openKey, GroupStatus.OPEN, READY_SIZE);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node opened a group for the key first
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Seat tryJoinOpen(String openKey) {
+        return seatTransaction.execute(status -> {
+            Optional<Long> groupId = tripGroupRepository.findIdByOpenKey(openKey);
+            if (groupId.isEmpty() || tripGroupRepository.claimSeat(groupId.get(), MAX_SIZE) == 0) {
+                return null;
+            }
+            long size = tripGroupRepository.findMemberCountById(groupId.get()).orElse(1L);
+            if (size >= READY_SIZE) {
+                tripGroupRepository.markFull(groupId.get(), size >= MAX_SIZE ? GroupStatus.CLOSED : GroupStatus.READY);
+            }
+            return new Seat(groupId.get(), size);
+        });
+    }
+
+    /** Opens a group holding this one seat; returns null when another node opened one for the key first. */
+    private Seat tryOpen(String openKey, String city, InterestType interest, WeekendType weekendType,
+            LocalDate travelDate) {
+        TripGroup group = tryCreate(openKey, city, interest, weekendType, travelDate, 1);
+        return group == null ? null : new Seat(group.getId(), 1);
+    }
+
+    private TripGroup tryCreate(String openKey, String city, InterestType interest, WeekendType weekendType,
+            LocalDate travelDate, long members) {
+        try {
+            return seatTransaction.execute(status -> {
+                TripGroup group = new TripGroup();
+                group.setCity(city);
+                group.setInterest(interest);
+                group.setWeekendType(weekendType);
+                group.setTravelDate(travelDate);
+                group.setStatus(GroupStatus.OPEN);
+                group.setOpenKey(openKey);
+                group.setMemberCount(members);
+                return tripGroupRepository.saveAndFlush(group);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private ReentrantLock stripeFor(String openKey) {
+        int hash = openKey.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static void requireNoTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Group seats must be taken before the booking transaction opens");
+        }
+    }
+
+    /** The matching key of a joinable group; every group that accepts members carries it as its open key. */
+    public static String openKey(String city, InterestType interest, WeekendType weekendType, LocalDate travelDate) {
+        return PlaceSpatialIndex.normalizeCity(city) + '|' + interest + '|' + weekendType + '|' + travelDate;
+    }
+}
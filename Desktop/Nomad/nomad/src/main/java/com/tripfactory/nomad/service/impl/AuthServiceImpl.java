@@ -24,6 +24,7 @@ import com.tripfactory.nomad.service.NotificationService;
 import com.tripfactory.nomad.service.exception.BadRequestException;
 import com.tripfactory.nomad.service.exception.ResourceNotFoundException;
 import com.tripfactory.nomad.service.jwt.JwtService;
+import com.tripfactory.nomad.service.jwt.TokenVersions;
 
 import lombok.RequiredArgsConstructor;
 
@@ -38,6 +39,7 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenVersions tokenVersions;
     private final NotificationService notificationService;
 
     @Value("${nomad.frontend-url:http://localhost:3000}")
@@ -64,7 +66,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
 
         User saved = userRepository.save(user);
-        String token = jwtService.generateToken(saved.getEmail());
+        String token = jwtService.generateToken(saved);
 
         AuthResponse response = new AuthResponse();
         response.setToken(token);
@@ -88,7 +90,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         AuthResponse response = new AuthResponse();
-        response.setToken(jwtService.generateToken(user.getEmail()));
+        response.setToken(jwtService.generateToken(user));
         response.setUser(toResponse(user));
         return response;
     }
@@ -131,6 +133,8 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepository.save(user);
         passwordResetTokenRepository.delete(resetToken);
+        // Sessions started with the old password end with it
+        tokenVersions.revoke(user.getId());
     }
 
     private UserResponse toResponse(User user) {
@@ -1,16 +1,23 @@
 package com.tripfactory.nomad.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Service;
 
 import com.tripfactory.nomad.service.NotificationService;
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.tripfactory.nomad.service.notification.SmsDispatchQueue;
+import com.tripfactory.nomad.service.notification.SmtpTransportPool;
+
+import jakarta.mail.internet.MimeMessage;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
@@ -18,62 +25,85 @@ public class NotificationServiceImpl implements NotificationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
     private final JavaMailSender mailSender;
+    // Present with nomad.mail.delivery=pooled; otherwise each email is sent on its own connection
+    private final SmtpTransportPool smtpTransportPool;
+    private final SmsDispatchQueue smsDispatchQueue;
     private final String fromAddress;
-    private final boolean smsEnabled;
-    private final String smsFromNumber;
-    private final String twilioAccountSid;
-    private final String twilioAuthToken;
 
     public NotificationServiceImpl(JavaMailSender mailSender,
-            @Value("${nomad.mail.from:no-reply@nomad.com}") String fromAddress,
-            @Value("${nomad.sms.enabled:false}") boolean smsEnabled,
-            @Value("${twilio.from-number:}") String smsFromNumber,
-            @Value("${twilio.account-sid:}") String twilioAccountSid,
-            @Value("${twilio.auth-token:}") String twilioAuthToken) {
+            ObjectProvider<SmtpTransportPool> smtpTransportPool,
+            SmsDispatchQueue smsDispatchQueue,
+            @Value("${nomad.mail.from:no-reply@nomad.com}") String fromAddress) {
         this.mailSender = mailSender;
+        this.smtpTransportPool = smtpTransportPool.getIfAvailable();
+        this.smsDispatchQueue = smsDispatchQueue;
         this.fromAddress = fromAddress;
-        this.smsEnabled = smsEnabled;
-        this.smsFromNumber = smsFromNumber;
-        this.twilioAccountSid = twilioAccountSid;
-        this.twilioAuthToken = twilioAuthToken;
-
-        if (smsEnabled && !twilioAccountSid.isBlank() && !twilioAuthToken.isBlank()) {
-            Twilio.init(twilioAccountSid, twilioAuthToken);
-        }
     }
 
     @Override
     public void sendEmail(String to, String subject, String body) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setFrom(fromAddress);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
+            deliverEmail(to, subject, body);
         } catch (Exception ex) {
             LOGGER.warn("Email send failed to {}: {}", to, ex.getMessage());
         }
     }
 
+    /** Queues the SMS and returns at once; see {@link SmsDispatchQueue}. */
     @Override
     public void sendSms(String to, String body) {
-        if (!smsEnabled) {
-            return;
-        }
-        if (to == null || to.isBlank()) {
-            return;
+        smsDispatchQueue.submit(to, body).whenComplete((sent, ex) -> {
+            if (ex != null) {
+                LOGGER.warn("SMS send failed to {}: {}", to, ex.getMessage());
+            }
+        });
+    }
+
+    /** Sends right away and lets failures propagate, so the outbox dispatcher can retry them. */
+    public void deliverEmail(String to, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setFrom(fromAddress);
+        message.setSubject(subject);
+        message.setText(body);
+        mailSender.send(message);
+    }
+
+    /**
+     * Sends a batch of emails, over the pooled SMTP connections when pooled delivery is on. The result has one
+     * entry per message: null when it was sent, otherwise the failure.
+     */
+    public List<Exception> deliverEmails(List<SimpleMailMessage> messages) {
+        messages.forEach(message -> message.setFrom(fromAddress));
+        if (smtpTransportPool == null) {
+            List<Exception> failures = new ArrayList<>(messages.size());
+            for (SimpleMailMessage message : messages) {
+                try {
+                    mailSender.send(message);
+                    failures.add(null);
+                } catch (Exception ex) {
+                    failures.add(ex);
+                }
+            }
+            return failures;
         }
-        if (smsFromNumber == null || smsFromNumber.isBlank()
-                || twilioAccountSid == null || twilioAccountSid.isBlank()
-                || twilioAuthToken == null || twilioAuthToken.isBlank()) {
-            LOGGER.warn("SMS not configured; skipping send to {}", to);
-            return;
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        List<Exception> failures = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        List<Integer> positions = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                messages.get(i).copyTo(new MimeMailMessage(mimeMessage));
+                mimeMessages.add(mimeMessage);
+                positions.add(i);
+            } catch (Exception ex) {
+                failures.set(i, ex);
+            }
         }
-        try {
-            Message.creator(new PhoneNumber(to), new PhoneNumber(smsFromNumber), body).create();
-        } catch (Exception ex) {
-            LOGGER.warn("SMS send failed to {}: {}", to, ex.getMessage());
+        List<Exception> sent = smtpTransportPool.send(mimeMessages);
+        for (int i = 0; i < positions.size(); i++) {
+            failures.set(positions.get(i), sent.get(i));
         }
+        return failures;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.tripfactory.nomad.service.impl;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.tripfactory.nomad.domain.entity.NotificationOutbox;
+import com.tripfactory.nomad.domain.enums.NotificationChannel;
+import com.tripfactory.nomad.repository.NotificationOutboxRepository;
+import com.tripfactory.nomad.service.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Default {@link NotificationService}: records the message in the outbox as part of the caller's transaction,
+ * so it is sent only if that transaction commits and the caller never waits on SMTP or Twilio.
+ * {@link com.tripfactory.nomad.service.notification.OutboxDispatcher} does the delivery.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+public class OutboxNotificationService implements NotificationService {
+
+    private final NotificationOutboxRepository outboxRepository;
+
+    @Override
+    public void sendEmail(String to, String subject, String body) {
+        enqueue(NotificationChannel.EMAIL, to, subject, body);
+    }
+
+    @Override
+    public void sendSms(String to, String body) {
+        enqueue(NotificationChannel.SMS, to, null, body);
+    }
+
+    private void enqueue(NotificationChannel channel, String to, String subject, String body) {
+        if (to == null || to.isBlank()) {
+            return;
+        }
+        NotificationOutbox message = new NotificationOutbox();
+        message.setChannel(channel);
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body == null ? "" : body);
+        outboxRepository.save(message);
+    }
+}
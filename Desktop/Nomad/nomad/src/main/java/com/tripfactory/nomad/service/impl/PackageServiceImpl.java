@@ -11,7 +11,7 @@ import org.springframework.stereotype.Service;
 import com.tripfactory.nomad.api.dto.PackageDetailResponse;
 import com.tripfactory.nomad.api.dto.PackageSummaryResponse;
 import com.tripfactory.nomad.api.dto.PlaceResponse;
-import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
 import com.tripfactory.nomad.repository.PlaceRepository;
 import com.tripfactory.nomad.service.PackageService;
 
@@ -28,15 +28,15 @@ public class PackageServiceImpl implements PackageService {
 
     @PostConstruct
     public void init() {
-        List<Place> bengaluru = placeRepository.findByCityIgnoreCase("Bengaluru");
-        List<Place> mumbai = placeRepository.findByCityIgnoreCase("Mumbai");
-        List<Place> delhi = placeRepository.findByCityIgnoreCase("Delhi");
-        List<Place> hyderabad = placeRepository.findByCityIgnoreCase("Hyderabad");
-        List<Place> chennai = placeRepository.findByCityIgnoreCase("Chennai");
-        List<Place> kolkata = placeRepository.findByCityIgnoreCase("Kolkata");
-        List<Place> pune = placeRepository.findByCityIgnoreCase("Pune");
-        List<Place> jaipur = placeRepository.findByCityIgnoreCase("Jaipur");
-        List<Place> goa = placeRepository.findByCityIgnoreCase("Goa");
+        List<PlaceSummary> bengaluru = placeRepository.findSummariesByCity("Bengaluru");
+        List<PlaceSummary> mumbai = placeRepository.findSummariesByCity("Mumbai");
+        List<PlaceSummary> delhi = placeRepository.findSummariesByCity("Delhi");
+        List<PlaceSummary> hyderabad = placeRepository.findSummariesByCity("Hyderabad");
+        List<PlaceSummary> chennai = placeRepository.findSummariesByCity("Chennai");
+        List<PlaceSummary> kolkata = placeRepository.findSummariesByCity("Kolkata");
+        List<PlaceSummary> pune = placeRepository.findSummariesByCity("Pune");
+        List<PlaceSummary> jaipur = placeRepository.findSummariesByCity("Jaipur");
+        List<PlaceSummary> goa = placeRepository.findSummariesByCity("Goa");
 
         packages.add(buildSummary("Weekend in Bengaluru", "A curated 2-day Bengaluru weekend with food, parks and nightlife.", new BigDecimal("4999"), bengaluru, "https://picsum.photos/seed/bengaluru-weekend/400/240"));
         packages.add(buildSummary("Mumbai Shoreline", "Explore beaches, bazaars and local cuisine in Mumbai.", new BigDecimal("5999"), mumbai, "https://picsum.photos/seed/mumbai-shoreline/400/240"));
@@ -49,7 +49,7 @@ public class PackageServiceImpl implements PackageService {
         packages.add(buildSummary("Goa Beach & Heritage", "Beaches, churches, Dudhsagar Falls and Goan nightlife.", new BigDecimal("6499"), goa, "https://picsum.photos/seed/goa-beach/400/240"));
     }
 
-    private PackageSummaryResponse buildSummary(String name, String desc, BigDecimal price, List<Place> fromPlaces, String imageUrl) {
+    private PackageSummaryResponse buildSummary(String name, String desc, BigDecimal price, List<PlaceSummary> fromPlaces, String imageUrl) {
         PackageSummaryResponse s = new PackageSummaryResponse();
         s.setId(idGenerator.getAndIncrement());
         s.setName(name);
@@ -92,9 +92,9 @@ public class PackageServiceImpl implements PackageService {
         else if (name.contains("pune")) city = "Pune";
         else if (name.contains("jaipur")) city = "Jaipur";
         else if (name.contains("goa")) city = "Goa";
-        List<Place> places = placeRepository.findByCityIgnoreCase(city);
+        List<PlaceSummary> places = placeRepository.findSummariesByCity(city);
         if (places == null || places.isEmpty()) {
-            places = placeRepository.findAll();
+            places = placeRepository.findAllSummaries();
         }
 
         List<PlaceResponse> placeResponses = places.stream().limit(5).map(p -> {
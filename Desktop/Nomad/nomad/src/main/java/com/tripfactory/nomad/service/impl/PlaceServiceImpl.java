@@ -1,17 +1,24 @@
 package com.tripfactory.nomad.service.impl;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tripfactory.nomad.api.dto.PlaceNearbyResponse;
 import com.tripfactory.nomad.api.dto.PlaceResponse;
 import com.tripfactory.nomad.domain.entity.Place;
 import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
 import com.tripfactory.nomad.repository.PlaceRepository;
 import com.tripfactory.nomad.service.PlaceService;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+import com.tripfactory.nomad.service.util.GeoUtils;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class PlaceServiceImpl implements PlaceService {
 
     private final PlaceRepository placeRepository;
+    private final PlaceSpatialIndex spatialIndex;
 
     @Override
     public PlaceResponse getById(Long id) {
@@ -39,27 +47,88 @@ public class PlaceServiceImpl implements PlaceService {
         return response;
     }
 
+    /** Read-only: the few entities loaded for their descriptions are never dirty-checked or flushed. */
     @Override
+    @Transactional(readOnly = true)
     public List<PlaceNearbyResponse> getNearbyPlaces(String city, double userLat, double userLon, InterestType interest,
             double radiusKm, int limit) {
-        List<Place> places;
+        if (spatialIndex.isReady()) {
+            return getNearbyPlacesFromIndex(city, userLat, userLon, interest, radiusKm, limit);
+        }
+
+        GeoUtils.BoundingBox box = GeoUtils.boundingBox(userLat, userLon, radiusKm);
+        List<PlaceSummary> places;
         if (city == null || city.trim().isEmpty()) {
-            // If no city provided, consider all seeded places and infer by distance
-            places = placeRepository.findAll();
+            // If no city provided, consider every place inside the radius envelope and infer by distance
+            places = placeRepository.findInBoundingBox(box.getMinLatitude(), box.getMaxLatitude(),
+                    box.getMinLongitude(), box.getMaxLongitude());
         } else {
-            places = placeRepository.findByCityIgnoreCase(city);
+            places = placeRepository.findByCityInBoundingBox(city, box.getMinLatitude(), box.getMaxLatitude(),
+                    box.getMinLongitude(), box.getMaxLongitude());
         }
 
         if (places == null || places.isEmpty()) {
             return List.of();
         }
 
-        return places.stream()
-                .map(place -> toNearbyResponse(place, userLat, userLon))
-                .filter(response -> response.getDistanceKm() <= radiusKm)
+        double[] lats = new double[places.size()];
+        double[] lons = new double[places.size()];
+        for (int i = 0; i < places.size(); i++) {
+            lats[i] = places.get(i).getLatitude();
+            lons[i] = places.get(i).getLongitude();
+        }
+        double[] distances = GeoUtils.haversineKm(userLat, userLon, lats, lons);
+        List<PlaceNearbyResponse> inRange = new ArrayList<>();
+        for (int i = 0; i < places.size(); i++) {
+            if (distances[i] <= radiusKm) {
+                inRange.add(toNearbyResponse(places.get(i), distances[i]));
+            }
+        }
+        // Rank on the slim rows, then load descriptions, images and opening hours only for the winners
+        List<PlaceNearbyResponse> winners = inRange.stream()
                 .sorted(buildComparator(interest))
                 .limit(limit)
                 .collect(Collectors.toList());
+        Map<Long, Place> details = placeRepository.findAllById(
+                winners.stream().map(PlaceNearbyResponse::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+        for (PlaceNearbyResponse response : winners) {
+            Place place = details.get(response.getId());
+            if (place != null) {
+                response.setDescription(place.getDescription());
+                response.setImageUrl(place.getImageUrl());
+                response.setOpeningHours(place.getOpeningHours());
+            }
+        }
+        return winners;
+    }
+
+    /** Top-K lookup through the spatial index; only the K winners are loaded from the database. */
+    private List<PlaceNearbyResponse> getNearbyPlacesFromIndex(String city, double userLat, double userLon,
+            InterestType interest, double radiusKm, int limit) {
+        List<PlaceSpatialIndex.Hit> hits = spatialIndex.query(city, userLat, userLon, radiusKm, limit,
+                buildHitComparator(interest));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(hit -> hit.getEntry().getId()).collect(Collectors.toList());
+        Map<Long, Place> placesById = placeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+        List<PlaceNearbyResponse> responses = new ArrayList<>(hits.size());
+        for (PlaceSpatialIndex.Hit hit : hits) {
+            Place place = placesById.get(hit.getEntry().getId());
+            if (place != null) {
+                responses.add(toNearbyResponse(place, hit.getDistanceKm()));
+            }
+        }
+        return responses;
+    }
+
+    private Comparator<PlaceSpatialIndex.Hit> buildHitComparator(InterestType interest) {
+        return Comparator
+                .comparingInt((PlaceSpatialIndex.Hit h) -> interest != null && interest == h.getEntry().getCategory() ? 0 : 1)
+                .thenComparingDouble(PlaceSpatialIndex.Hit::getDistanceKm)
+                .thenComparing(Comparator.comparingDouble((PlaceSpatialIndex.Hit h) -> h.getEntry().getRating()).reversed());
     }
 
     private Comparator<PlaceNearbyResponse> buildComparator(InterestType interest) {
@@ -69,7 +138,7 @@ public class PlaceServiceImpl implements PlaceService {
                 .thenComparing(PlaceNearbyResponse::getRating, Comparator.reverseOrder());
     }
 
-    private PlaceNearbyResponse toNearbyResponse(Place place, double userLat, double userLon) {
+    private PlaceNearbyResponse toNearbyResponse(PlaceSummary place, double distanceKm) {
         PlaceNearbyResponse response = new PlaceNearbyResponse();
         response.setId(place.getId());
         response.setName(place.getName());
@@ -78,23 +147,23 @@ public class PlaceServiceImpl implements PlaceService {
         response.setLongitude(place.getLongitude());
         response.setCategory(place.getCategory());
         response.setRating(place.getRating());
-        response.setDistanceKm(haversineKm(userLat, userLon, place.getLatitude(), place.getLongitude()));
+        response.setDistanceKm(distanceKm);
+        return response;
+    }
+
+    private PlaceNearbyResponse toNearbyResponse(Place place, double distanceKm) {
+        PlaceNearbyResponse response = new PlaceNearbyResponse();
+        response.setId(place.getId());
+        response.setName(place.getName());
+        response.setCity(place.getCity());
+        response.setLatitude(place.getLatitude());
+        response.setLongitude(place.getLongitude());
+        response.setCategory(place.getCategory());
+        response.setRating(place.getRating());
+        response.setDistanceKm(distanceKm);
         response.setDescription(place.getDescription());
         response.setImageUrl(place.getImageUrl());
         response.setOpeningHours(place.getOpeningHours());
         return response;
     }
-
-    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
-        double earthRadiusKm = 6371.0;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double rLat1 = Math.toRadians(lat1);
-        double rLat2 = Math.toRadians(lat2);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(rLat1) * Math.cos(rLat2)
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return earthRadiusKm * c;
-    }
 }
\ No newline at end of file
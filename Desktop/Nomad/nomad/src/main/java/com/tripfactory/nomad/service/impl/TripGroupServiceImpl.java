@@ -1,5 +1,6 @@
 package com.tripfactory.nomad.service.impl;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -14,6 +15,8 @@ import com.tripfactory.nomad.repository.TripGroupRepository;
 import com.tripfactory.nomad.repository.TripRequestRepository;
 import com.tripfactory.nomad.service.TripGroupService;
 import com.tripfactory.nomad.service.exception.ResourceNotFoundException;
+import com.tripfactory.nomad.service.group.GroupMatchingEngine;
+import com.tripfactory.nomad.service.util.TravelDates;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,14 +26,17 @@ public class TripGroupServiceImpl implements TripGroupService {
 
     private final TripGroupRepository tripGroupRepository;
     private final TripRequestRepository tripRequestRepository;
+    private final GroupMatchingEngine groupMatchingEngine;
 
     @Override
     public TripGroupResponse createGroup(TripGroupCreateRequest request) {
-        TripGroup group = new TripGroup();
-        group.setCity(request.getCity());
-        group.setInterest(request.getInterest());
-        group.setWeekendType(request.getWeekendType());
-        group = tripGroupRepository.save(group);
+        // Opened through the matching engine so bookings for the same key join it; an already open group for
+        // the key is returned instead of a second one
+        LocalDate travelDate = request.getTravelDate() != null
+                ? request.getTravelDate()
+                : TravelDates.nextWeekend(LocalDate.now());
+        TripGroup group = groupMatchingEngine.open(request.getCity(), request.getInterest(), request.getWeekendType(),
+                travelDate);
         TripGroupResponse response = new TripGroupResponse();
         response.setId(group.getId());
         response.setCity(group.getCity());
@@ -38,7 +44,7 @@ public class TripGroupServiceImpl implements TripGroupService {
         response.setWeekendType(group.getWeekendType());
         response.setStatus(group.getStatus());
         response.setCreatedAt(group.getCreatedAt());
-        response.setSize(tripRequestRepository.countByGroupId(group.getId()));
+        response.setSize(group.getMemberCount());
         return response;
     }
 
@@ -53,7 +59,7 @@ public class TripGroupServiceImpl implements TripGroupService {
         response.setWeekendType(group.getWeekendType());
         response.setStatus(group.getStatus());
         response.setCreatedAt(group.getCreatedAt());
-        response.setSize(tripRequestRepository.countByGroupId(groupId));
+        response.setSize(group.getMemberCount());
         return response;
     }
 
@@ -1,18 +1,21 @@
 package com.tripfactory.nomad.service.impl;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.tripfactory.nomad.api.dto.PlanPreviewRequest;
@@ -27,18 +30,30 @@ import com.tripfactory.nomad.domain.entity.TripGroup;
 import com.tripfactory.nomad.domain.entity.TripPlan;
 import com.tripfactory.nomad.domain.entity.TripRequest;
 import com.tripfactory.nomad.domain.entity.User;
-import com.tripfactory.nomad.domain.enums.GroupStatus;
 import com.tripfactory.nomad.domain.enums.TravelMode;
 import com.tripfactory.nomad.domain.enums.TripStatus;
 import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
 import com.tripfactory.nomad.repository.PlaceRepository;
 import com.tripfactory.nomad.repository.TripGroupRepository;
 import com.tripfactory.nomad.repository.TripPlanRepository;
 
 import com.tripfactory.nomad.repository.TripRequestRepository;
 import com.tripfactory.nomad.repository.UserRepository;
+import com.tripfactory.nomad.security.TripOwnerIndex;
+import com.tripfactory.nomad.security.UserPrincipal;
 import com.tripfactory.nomad.service.NotificationService;
 import com.tripfactory.nomad.service.TripService;
+import com.tripfactory.nomad.service.group.GroupMatchingEngine;
+import com.tripfactory.nomad.service.planner.CityPlaceSnapshot;
+import com.tripfactory.nomad.service.planner.PlaceSnapshotRegistry;
+import com.tripfactory.nomad.service.planner.PlanPreviewCache;
+import com.tripfactory.nomad.service.planner.PreviewTokenStore;
+import com.tripfactory.nomad.service.planner.TripPlanner;
+import com.tripfactory.nomad.service.route.RouteCosts;
+import com.tripfactory.nomad.service.route.RouteOptimizer;
+import com.tripfactory.nomad.service.util.GeoUtils;
+import com.tripfactory.nomad.service.util.TravelDates;
 
 @Service
 public class TripServiceImpl implements TripService {
@@ -48,22 +63,51 @@ public class TripServiceImpl implements TripService {
     private final TripRequestRepository tripRequestRepository;
     private final TripPlanRepository tripPlanRepository;
     private final NotificationService notificationService;
+    private final PlaceSnapshotRegistry placeSnapshotRegistry;
+    private final TripPlanner tripPlanner;
+    private final PlanPreviewCache planPreviewCache;
+    private final PreviewTokenStore previewTokenStore;
+    private final RouteOptimizer routeOptimizer;
+    private final GroupMatchingEngine groupMatchingEngine;
+    private final TripOwnerIndex tripOwnerIndex;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
 
     private static final BigDecimal BASE_COST_PER_PLACE = new BigDecimal("500");
     private static final BigDecimal PICKUP_COST = new BigDecimal("1000");
+    private static final int MAX_TRIPS_PAGE_SIZE = 100;
+    private static final Set<TripStatus> CANCELLABLE_STATUSES = Set.of(TripStatus.REQUESTED, TripStatus.PAYMENT_PENDING);
 
     public TripServiceImpl(UserRepository userRepository,
                           PlaceRepository placeRepository,
                           TripGroupRepository tripGroupRepository,
                           TripRequestRepository tripRequestRepository,
                           TripPlanRepository tripPlanRepository,
-                          NotificationService notificationService) {
+                          NotificationService notificationService,
+                          PlaceSnapshotRegistry placeSnapshotRegistry,
+                          TripPlanner tripPlanner,
+                          PlanPreviewCache planPreviewCache,
+                          PreviewTokenStore previewTokenStore,
+                          RouteOptimizer routeOptimizer,
+                          GroupMatchingEngine groupMatchingEngine,
+                          TripOwnerIndex tripOwnerIndex,
+                          PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.placeRepository = placeRepository;
         this.tripGroupRepository = tripGroupRepository;
         this.tripRequestRepository = tripRequestRepository;
         this.tripPlanRepository = tripPlanRepository;
         this.notificationService = notificationService;
+        this.placeSnapshotRegistry = placeSnapshotRegistry;
+        this.tripPlanner = tripPlanner;
+        this.planPreviewCache = planPreviewCache;
+        this.previewTokenStore = previewTokenStore;
+        this.routeOptimizer = routeOptimizer;
+        this.groupMatchingEngine = groupMatchingEngine;
+        this.tripOwnerIndex = tripOwnerIndex;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
     }
 
     @Override
@@ -71,60 +115,55 @@ public class TripServiceImpl implements TripService {
         if (request.getUserId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId is required");
         }
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        String city = request.getCity() != null ? request.getCity() : user.getCity();
-        Double userLat = request.getUserLatitude() != null ? request.getUserLatitude() : user.getLatitude();
-        Double userLon = request.getUserLongitude() != null ? request.getUserLongitude() : user.getLongitude();
+        String city = request.getCity();
+        Double userLat = request.getUserLatitude();
+        Double userLon = request.getUserLongitude();
+        // The profile is only needed to fill in missing fields; otherwise just confirm the user exists
+        if (city == null || userLat == null || userLon == null) {
+            User user = userRepository.findById(request.getUserId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+            city = city != null ? city : user.getCity();
+            userLat = userLat != null ? userLat : user.getLatitude();
+            userLon = userLon != null ? userLon : user.getLongitude();
+        } else if (!userRepository.existsById(request.getUserId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
 
         if (city == null || userLat == null || userLon == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "City and user coordinates are required");
         }
 
-        List<Place> places = placeRepository.findByCityIgnoreCase(city);
-        if (places.isEmpty()) {
+        CityPlaceSnapshot snapshot = placeSnapshotRegistry.forCity(city);
+        if (snapshot.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No places found for the city");
         }
 
         WeekendType weekendType = Objects.requireNonNullElse(request.getWeekendType(), WeekendType.ONE_DAY);
-        int totalSlots = weekendType == WeekendType.TWO_DAY ? 6 : 4;
-        int dayCount = weekendType == WeekendType.TWO_DAY ? 2 : 1;
-        int perDay = (int) Math.ceil((double) totalSlots / dayCount);
-
-        // Generate plan options (without saving to database)
-        List<com.tripfactory.nomad.api.dto.TripPlanOptionResponse> planOptions = new ArrayList<>();
-        
-        // Create a temporary TripRequest for building plans (not saved)
-        TripRequest tempTripRequest = new TripRequest();
-        tempTripRequest.setUser(user);
-        tempTripRequest.setCity(city);
-        tempTripRequest.setWeekendType(weekendType);
-        
-        for (com.tripfactory.nomad.domain.enums.InterestType type : com.tripfactory.nomad.domain.enums.InterestType.values()) {
-            List<Place> filtered = places.stream().filter(p -> p.getCategory() == type).collect(Collectors.toList());
-            if (!filtered.isEmpty()) {
-                List<Place> ranked = rankPlaces(filtered, userLat, userLon, type);
-                List<TripPlan> plan = buildPlans(tempTripRequest, ranked, totalSlots, perDay);
-                if (!plan.isEmpty()) {
-                    planOptions.add(toPlanOptionResponse(type.name() + " Only", plan));
-                }
-            }
-        }
-
-        // Generate hybrid plan
-        List<Place> hybrid = new ArrayList<>();
-        int perInterest = Math.max(1, totalSlots / com.tripfactory.nomad.domain.enums.InterestType.values().length);
-        for (com.tripfactory.nomad.domain.enums.InterestType type : com.tripfactory.nomad.domain.enums.InterestType.values()) {
-            List<Place> filtered = places.stream().filter(p -> p.getCategory() == type).limit(perInterest).collect(Collectors.toList());
-            hybrid.addAll(filtered);
-        }
-        if (!hybrid.isEmpty()) {
-            List<Place> rankedHybrid = rankPlaces(hybrid, userLat, userLon, null);
-            List<TripPlan> hybridPlan = buildPlans(tempTripRequest, rankedHybrid, totalSlots, perDay);
-            if (!hybridPlan.isEmpty()) {
-                planOptions.add(toPlanOptionResponse("Hybrid", hybridPlan));
+        // Generate plan options (without saving to database); shared by every user in the same location cell,
+        // while the preview tokens handed out with them are minted for this user only. The cell centre only
+        // chooses the places: the legs shown are measured from the user's own position.
+        List<TripPlanner.PlanOption> planned = planPreviewCache.get(snapshot, weekendType, userLat, userLon,
+                (originLat, originLon) -> {
+                    TripPlanner.PlanOptions options = tripPlanner.planAll(snapshot, originLat, originLon,
+                            originLat, originLon, weekendType);
+                    if (options.getOptions().isEmpty() && !options.isComplete()) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "Trip planner is busy, please retry");
+                    }
+                    return options.isComplete()
+                            ? PlanPreviewCache.Options.complete(options.getOptions())
+                            : PlanPreviewCache.Options.partial(options.getOptions());
+                });
+        // Tokens belong to the caller's authenticated identity, whatever userId the body names
+        Long tokenOwner = UserPrincipal.current().map(UserPrincipal::getId).orElse(null);
+        List<com.tripfactory.nomad.api.dto.TripPlanOptionResponse> planOptions = new ArrayList<>(planned.size());
+        for (TripPlanner.PlanOption option : planned) {
+            com.tripfactory.nomad.api.dto.TripPlanOptionResponse response = toPlanOptionResponse(
+                    option.withHome(snapshot, userLat, userLon), snapshot);
+            if (tokenOwner != null) {
+                response.setPreviewToken(previewTokenStore.register(tokenOwner, snapshot, weekendType, option));
             }
+            planOptions.add(response);
         }
 
         PlanPreviewResponse response = new PlanPreviewResponse();
@@ -133,8 +172,12 @@ public class TripServiceImpl implements TripService {
         return response;
     }
 
+    /**
+     * Not transactional as a whole: the user is read and the trip planned without holding a connection, the
+     * group seat is taken in its own short transaction, and only then are the trip rows written in one
+     * transaction. A seat whose booking does not commit is given back.
+     */
     @Override
-    @Transactional
     @SuppressWarnings("null")
     public TripResponse createTrip(TripCreateRequest request) {
         // ...existing code...
@@ -162,116 +205,105 @@ public class TripServiceImpl implements TripService {
             () -> com.tripfactory.nomad.domain.enums.TravelMode.valueOf(user.getTravelPreference().name())));
         tripRequest.setPickupRequired(Boolean.TRUE.equals(request.getPickupRequired()));
         tripRequest.setStatus(TripStatus.REQUESTED);
-        
+
         // Calculate travel date: use provided date or default to next weekend
         LocalDate travelDate = request.getTravelDate();
-        System.out.println("[DEBUG] createTrip - Request travelDate: " + travelDate);
         if (travelDate == null) {
             travelDate = calculateNextWeekendDate(tripRequest.getWeekendType());
-            System.out.println("[DEBUG] createTrip - Calculated default travelDate: " + travelDate);
         }
         tripRequest.setTravelDate(travelDate);
-        System.out.println("[DEBUG] createTrip - Setting travelDate on tripRequest: " + travelDate);
-
-        if (tripRequest.getTravelMode() == TravelMode.GROUP) {
-            TripGroup group = assignGroup(city, tripRequest.getInterest(), tripRequest.getWeekendType(), travelDate);
-            tripRequest.setGroup(group);
-        }
-
-        TripRequest savedRequest = tripRequestRepository.save(tripRequest);
 
-        List<Place> places = placeRepository.findByCityIgnoreCase(city);
-        if (places.isEmpty()) {
+        CityPlaceSnapshot snapshot = placeSnapshotRegistry.forCity(city);
+        if (snapshot.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No places found for the city");
         }
 
-        int totalSlots = savedRequest.getWeekendType() == WeekendType.TWO_DAY ? 6 : 4;
-        int dayCount = savedRequest.getWeekendType() == WeekendType.TWO_DAY ? 2 : 1;
-        int perDay = (int) Math.ceil((double) totalSlots / dayCount);
-
-        // Generate all plan options to find the selected one
-        List<TripPlan> selectedPlanPlans = null;
-        String selectedPlanType = request.getSelectedPlanType();
-        
-        if (selectedPlanType == null || selectedPlanType.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "selectedPlanType is required");
+        // A preview token is honoured only for the authenticated user it was issued to, and used as-is only if
+        // it was planned for this city and weekend from the current catalog; otherwise re-plan the option it
+        // names (or selectedPlanType). A token naming a different option than selectedPlanType is rejected
+        // rather than letting either silently win.
+        PreviewTokenStore.PreviewedPlan previewed = UserPrincipal.current()
+                .flatMap(principal -> previewTokenStore.find(request.getPreviewToken(), principal.getId()))
+                .orElse(null);
+        if (previewed != null && request.getSelectedPlanType() != null && !request.getSelectedPlanType().isEmpty()
+                && !request.getSelectedPlanType().equals(previewed.getOption().getType())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "selectedPlanType does not match the previewed plan: " + request.getSelectedPlanType());
         }
-
-        // Generate plans for each interest type
-        for (com.tripfactory.nomad.domain.enums.InterestType type : com.tripfactory.nomad.domain.enums.InterestType.values()) {
-            String planType = type.name() + " Only";
-            List<Place> filtered = places.stream().filter(p -> p.getCategory() == type).collect(Collectors.toList());
-            if (!filtered.isEmpty() && planType.equals(selectedPlanType)) {
-                List<Place> ranked = rankPlaces(filtered, userLat, userLon, type);
-                selectedPlanPlans = buildPlans(savedRequest, ranked, totalSlots, perDay);
-                break;
+        TripPlanner.PlanOption selectedOption;
+        if (previewed != null && previewed.getSnapshot() == snapshot
+                && previewed.getWeekendType() == tripRequest.getWeekendType()) {
+            selectedOption = previewed.getOption();
+        } else {
+            String planType = request.getSelectedPlanType() != null && !request.getSelectedPlanType().isEmpty()
+                    ? request.getSelectedPlanType()
+                    : (previewed != null ? previewed.getOption().getType() : null);
+            if (planType == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "selectedPlanType is required");
             }
+            // Plan from the same point the preview used, so the booked plan is the one the user was shown
+            PlanPreviewCache.Origin origin = planPreviewCache.originFor(userLat, userLon);
+            selectedOption = tripPlanner.plan(snapshot, origin.getLatitude(), origin.getLongitude(),
+                    origin.getLatitude(), origin.getLongitude(), tripRequest.getWeekendType(), planType)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Selected plan type not found or has no places: " + planType));
+        }
+        // Stored legs start from where the user actually is, not from the cell centre the places were chosen from
+        selectedOption = selectedOption.withHome(snapshot, userLat, userLon);
+
+        // Seat the trip only once it has a plan, so a rejected request never takes a group seat
+        GroupMatchingEngine.Seat seat = null;
+        if (tripRequest.getTravelMode() == TravelMode.GROUP) {
+            seat = assignGroup(city, tripRequest.getInterest(), tripRequest.getWeekendType(), travelDate);
         }
-
-        // If not found, check for hybrid plan
-        if (selectedPlanPlans == null && "Hybrid".equals(selectedPlanType)) {
-            List<Place> hybrid = new ArrayList<>();
-            int perInterest = Math.max(1, totalSlots / com.tripfactory.nomad.domain.enums.InterestType.values().length);
-            for (com.tripfactory.nomad.domain.enums.InterestType type : com.tripfactory.nomad.domain.enums.InterestType.values()) {
-                List<Place> filtered = places.stream().filter(p -> p.getCategory() == type).limit(perInterest).collect(Collectors.toList());
-                hybrid.addAll(filtered);
-            }
-            if (!hybrid.isEmpty()) {
-                List<Place> rankedHybrid = rankPlaces(hybrid, userLat, userLon, null);
-                selectedPlanPlans = buildPlans(savedRequest, rankedHybrid, totalSlots, perDay);
+        try {
+            return writeTrip(request, user, tripRequest, seat, selectedOption, snapshot);
+        } catch (RuntimeException ex) {
+            if (seat != null) {
+                groupMatchingEngine.leave(seat.getGroupId());
             }
+            throw ex;
         }
+    }
 
-        if (selectedPlanPlans == null || selectedPlanPlans.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Selected plan type not found or has no places: " + selectedPlanType);
-        }
-
-        // Save ONLY the selected plan's TripPlans
-        System.out.println("[DEBUG] Creating trip for city: " + city);
-        System.out.println("[DEBUG] Selected plan type: " + selectedPlanType);
-        System.out.println("[DEBUG] Places in selected plan: " + selectedPlanPlans.size());
-        tripPlanRepository.saveAll(selectedPlanPlans);
-
-        // Trip is confirmed only after payment; keep REQUESTED until then
-        savedRequest.setStatus(TripStatus.REQUESTED);
-        TripRequest updated = tripRequestRepository.save(savedRequest);
-        System.out.println("[DEBUG] After final save - updated.getTravelDate(): " + updated.getTravelDate());
-
-        // Re-fetch the saved TripPlans
-        List<TripPlan> attachedPlans = tripPlanRepository.findByTripRequestIdOrderByDayNumberAscStartTimeAsc(updated.getId());
-        
-        // Build response with only the selected plan
-        List<com.tripfactory.nomad.api.dto.TripPlanOptionResponse> attachedPlanOptions = new ArrayList<>();
-        attachedPlanOptions.add(toPlanOptionResponse(selectedPlanType, attachedPlans));
+    private TripResponse writeTrip(TripCreateRequest request, User user, TripRequest tripRequest,
+            GroupMatchingEngine.Seat seat, TripPlanner.PlanOption selectedOption, CityPlaceSnapshot snapshot) {
+        String city = tripRequest.getCity();
+        LocalDate travelDate = tripRequest.getTravelDate();
+        return writeTransaction.execute(status -> {
+            if (seat != null) {
+                tripRequest.setGroup(tripGroupRepository.getReferenceById(seat.getGroupId()));
+            }
 
-        TripResponse response = new TripResponse();
-        response.setTripRequestId(updated.getId());
-        response.setUserId(updated.getUser().getId());
-        response.setCity(updated.getCity());
-        // shareToken removed
-        if (updated.getGroup() != null) {
-            response.setGroupId(updated.getGroup().getId());
-            response.setGroupSize(tripRequestRepository.countByGroupId(updated.getGroup().getId()));
-        }
-        response.setStatus(updated.getStatus());
-        response.setCreatedAt(updated.getCreatedAt());
-        // Ensure travelDate is set (use from updated request or recalculate if still null)
-        LocalDate responseTravelDate = updated.getTravelDate();
-        if (responseTravelDate == null) {
-            responseTravelDate = calculateNextWeekendDate(updated.getWeekendType());
-        }
-        response.setTravelDate(responseTravelDate);
-        System.out.println("[DEBUG] TripResponse travelDate: " + responseTravelDate);
-        response.setPlans(attachedPlanOptions);
-        response.setEstimatedCost(estimateCost(totalSlots, Boolean.TRUE.equals(request.getPickupRequired())));
-
-        notificationService.sendEmail(user.getEmail(), "NOMAD Trip Planned",
-            "Your trip is planned for " + updated.getCity() + ". Trip ID: " + updated.getId());
-        if (user.getPhoneNumber() != null && !user.getPhoneNumber().isBlank()) {
-            notificationService.sendSms(user.getPhoneNumber(),
-                "NOMAD: Trip planned for " + updated.getCity() + ". Trip ID: " + updated.getId());
-        }
-        return response;
+            // Trip is confirmed only after payment; it stays REQUESTED. Each row is written once, when the
+            // transaction flushes, and the response is built from the plan in hand rather than re-read.
+            TripRequest savedRequest = tripRequestRepository.save(tripRequest);
+            tripOwnerIndex.recordOwner(savedRequest.getId(), user.getId());
+            tripPlanRepository.saveAll(toTripPlans(savedRequest, selectedOption, snapshot));
+
+            TripResponse response = new TripResponse();
+            response.setTripRequestId(savedRequest.getId());
+            response.setUserId(user.getId());
+            response.setCity(city);
+            if (seat != null) {
+                response.setGroupId(seat.getGroupId());
+                response.setGroupSize(seat.getMemberCount());
+            }
+            response.setStatus(savedRequest.getStatus());
+            response.setCreatedAt(savedRequest.getCreatedAt());
+            response.setTravelDate(travelDate);
+            response.setPlans(List.of(toPlanOptionResponse(selectedOption, snapshot)));
+            response.setEstimatedCost(estimateCost(TripPlanner.totalSlots(savedRequest.getWeekendType()),
+                    Boolean.TRUE.equals(request.getPickupRequired())));
+
+            notificationService.sendEmail(user.getEmail(), "NOMAD Trip Planned",
+                "Your trip is planned for " + city + ". Trip ID: " + savedRequest.getId());
+            if (user.getPhoneNumber() != null && !user.getPhoneNumber().isBlank()) {
+                notificationService.sendSms(user.getPhoneNumber(),
+                    "NOMAD: Trip planned for " + city + ". Trip ID: " + savedRequest.getId());
+            }
+            return response;
+        });
     }
 
     @Override
@@ -287,7 +319,7 @@ public class TripServiceImpl implements TripService {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        List<Place> places = placeRepository.findAllById(request.getPlaceIds());
+        List<PlaceSummary> places = placeRepository.findSummariesByIdIn(request.getPlaceIds());
         if (places.size() != request.getPlaceIds().size()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Some place IDs are invalid");
         }
@@ -299,7 +331,7 @@ public class TripServiceImpl implements TripService {
             userLon = 77.5946;
         }
 
-        List<Place> ordered = optimizeOrder(places, userLat, userLon);
+        List<PlaceSummary> ordered = optimizeOrder(places, userLat, userLon);
         String city = request.getCity() != null && !request.getCity().isBlank()
                 ? request.getCity()
                 : (ordered.isEmpty() ? user.getCity() : ordered.get(0).getCity());
@@ -323,22 +355,25 @@ public class TripServiceImpl implements TripService {
         // Trip is confirmed only after payment; keep REQUESTED until then
         tripRequest.setStatus(TripStatus.REQUESTED);
         tripRequest.setTravelDate(travelDate);
+        BigDecimal cost = estimateCostForCustomTrip(ordered.size());
+        tripRequest.setEstimatedCost(cost != null ? cost.doubleValue() : null);
 
         TripRequest savedRequest = tripRequestRepository.save(tripRequest);
+        tripOwnerIndex.recordOwner(savedRequest.getId(), user.getId());
 
         LocalTime start = LocalTime.of(9, 0);
-        Place previous = null;
+        PlaceSummary previous = null;
         List<TripPlan> plans = new ArrayList<>();
-        for (Place place : ordered) {
+        for (PlaceSummary place : ordered) {
             TripPlan plan = new TripPlan();
             plan.setTripRequest(savedRequest);
             plan.setDayNumber(1);
-            plan.setPlace(place);
+            plan.setPlace(placeRepository.getReferenceById(place.getId()));
             plan.setStartTime(start);
             plan.setEndTime(start.plusHours(2));
             double dist = previous == null
-                    ? haversineKm(userLat, userLon, toPrimitive(place.getLatitude()), toPrimitive(place.getLongitude()))
-                    : haversineKm(toPrimitive(previous.getLatitude()), toPrimitive(previous.getLongitude()),
+                    ? GeoUtils.haversineKm(userLat, userLon, toPrimitive(place.getLatitude()), toPrimitive(place.getLongitude()))
+                    : GeoUtils.haversineKm(toPrimitive(previous.getLatitude()), toPrimitive(previous.getLongitude()),
                             toPrimitive(place.getLatitude()), toPrimitive(place.getLongitude()));
             plan.setDistanceFromPrevious(dist);
             plans.add(plan);
@@ -347,36 +382,51 @@ public class TripServiceImpl implements TripService {
         }
         tripPlanRepository.saveAll(plans);
 
-        BigDecimal cost = estimateCostForCustomTrip(ordered.size());
-        savedRequest.setEstimatedCost(cost != null ? cost.doubleValue() : null);
-        tripRequestRepository.save(savedRequest);
-
-        List<TripPlan> attachedPlans = tripPlanRepository.findByTripRequestIdOrderByDayNumberAscStartTimeAsc(savedRequest.getId());
-        TripResponse response = toResponse(savedRequest, attachedPlans);
+        // Plan places are references; the response reads place details from the summaries already loaded
+        TripResponse response = toResponse(savedRequest, List.of());
         response.setUserLatitude(user.getLatitude());
         response.setUserLongitude(user.getLongitude());
         response.setEstimatedCost(cost);
-        response.setPlans(java.util.Collections.singletonList(toPlanOptionResponse("Custom", attachedPlans)));
+        response.setPlans(java.util.Collections.singletonList(toPlanOptionResponse("Custom", plans, ordered)));
 
         notificationService.sendEmail(user.getEmail(), "NOMAD Trip Created",
                 "Your custom trip is ready. Trip ID: " + savedRequest.getId() + ", Cost: ₹" + cost);
         return response;
     }
 
-    /** Nearest-neighbour order from (userLat, userLon) through all places. */
-    private List<Place> optimizeOrder(List<Place> places, double startLat, double startLon) {
-        if (places.isEmpty()) return List.of();
-        List<Place> remaining = new ArrayList<>(places);
-        List<Place> ordered = new ArrayList<>();
-        final double[] current = { startLat, startLon };
-        while (!remaining.isEmpty()) {
-            Place next = remaining.stream()
-                    .min(Comparator.comparing(p -> haversineKm(current[0], current[1], toPrimitive(p.getLatitude()), toPrimitive(p.getLongitude()))))
-                    .orElseThrow();
-            ordered.add(next);
-            remaining.remove(next);
-            current[0] = toPrimitive(next.getLatitude());
-            current[1] = toPrimitive(next.getLongitude());
+    /**
+     * Route through all places starting at (startLat, startLon), within the route optimizer's time budget.
+     * Places from a single city use that city's cached distance matrix.
+     */
+    private List<PlaceSummary> optimizeOrder(List<PlaceSummary> places, double startLat, double startLon) {
+        int count = places.size();
+        int[] order = null;
+        String city = count == 0 ? null : places.get(0).getCity();
+        if (city != null && places.stream().allMatch(p -> city.equalsIgnoreCase(p.getCity()))) {
+            CityPlaceSnapshot snapshot = placeSnapshotRegistry.forCity(city);
+            int[] positions = new int[count];
+            for (int i = 0; i < count && positions != null; i++) {
+                positions[i] = snapshot.indexOf(places.get(i).getId());
+                if (positions[i] < 0) {
+                    positions = null;
+                }
+            }
+            if (positions != null) {
+                order = tripPlanner.route(snapshot, positions, startLat, startLon);
+            }
+        }
+        if (order == null) {
+            double[] lats = new double[count];
+            double[] lons = new double[count];
+            for (int i = 0; i < count; i++) {
+                lats[i] = toPrimitive(places.get(i).getLatitude());
+                lons[i] = toPrimitive(places.get(i).getLongitude());
+            }
+            order = routeOptimizer.optimize(RouteCosts.haversine(startLat, startLon, lats, lons));
+        }
+        List<PlaceSummary> ordered = new ArrayList<>(count);
+        for (int index : order) {
+            ordered.add(places.get(index));
         }
         return ordered;
     }
@@ -389,11 +439,15 @@ public class TripServiceImpl implements TripService {
         return BigDecimal.valueOf(base + perPlace * placeCount + random);
     }
 
-    private com.tripfactory.nomad.api.dto.TripPlanOptionResponse toPlanOptionResponse(String type, List<TripPlan> plans) {
+    /** Option response for plans whose places are given, in the same order, by {@code places}. */
+    private com.tripfactory.nomad.api.dto.TripPlanOptionResponse toPlanOptionResponse(String type, List<TripPlan> plans,
+            List<PlaceSummary> places) {
         com.tripfactory.nomad.api.dto.TripPlanOptionResponse option = new com.tripfactory.nomad.api.dto.TripPlanOptionResponse();
         option.setType(type);
-        List<TripPlanItemResponse> items = plans.stream().map(plan -> {
-            Place place = plan.getPlace();
+        List<TripPlanItemResponse> items = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            TripPlan plan = plans.get(i);
+            PlaceSummary place = places.get(i);
             TripPlanItemResponse item = new TripPlanItemResponse();
             item.setDayNumber(plan.getDayNumber());
             item.setPlaceId(place.getId());
@@ -407,12 +461,52 @@ public class TripServiceImpl implements TripService {
             item.setCity(place.getCity());
             item.setCategory(place.getCategory());
             item.setRating(place.getRating());
+            items.add(item);
+        }
+        option.setPlaces(items);
+        return option;
+    }
+
+    private com.tripfactory.nomad.api.dto.TripPlanOptionResponse toPlanOptionResponse(TripPlanner.PlanOption planOption,
+            CityPlaceSnapshot snapshot) {
+        com.tripfactory.nomad.api.dto.TripPlanOptionResponse option = new com.tripfactory.nomad.api.dto.TripPlanOptionResponse();
+        option.setType(planOption.getType());
+        List<TripPlanItemResponse> items = planOption.getStops().stream().map(stop -> {
+            int place = stop.getPlaceIndex();
+            TripPlanItemResponse item = new TripPlanItemResponse();
+            item.setDayNumber(stop.getDayNumber());
+            item.setPlaceId(snapshot.id(place));
+            item.setPlaceName(snapshot.name(place));
+            item.setStartTime(stop.getStartTime());
+            item.setEndTime(stop.getEndTime());
+            item.setDistanceFromPrevious(stop.getDistanceFromPrevious());
+            item.setLatitude(snapshot.latitude(place));
+            item.setLongitude(snapshot.longitude(place));
+            item.setCity(snapshot.city(place));
+            item.setCategory(snapshot.category(place));
+            item.setRating(snapshot.rating(place));
             return item;
         }).collect(Collectors.toList());
         option.setPlaces(items);
         return option;
     }
 
+    /** Plan rows for a planner option; places are attached as references since the snapshot already validated them. */
+    private List<TripPlan> toTripPlans(TripRequest tripRequest, TripPlanner.PlanOption option, CityPlaceSnapshot snapshot) {
+        List<TripPlan> plans = new ArrayList<>(option.getStops().size());
+        for (TripPlanner.PlannedStop stop : option.getStops()) {
+            TripPlan plan = new TripPlan();
+            plan.setTripRequest(tripRequest);
+            plan.setDayNumber(stop.getDayNumber());
+            plan.setPlace(placeRepository.getReferenceById(snapshot.id(stop.getPlaceIndex())));
+            plan.setStartTime(stop.getStartTime());
+            plan.setEndTime(stop.getEndTime());
+            plan.setDistanceFromPrevious(stop.getDistanceFromPrevious());
+            plans.add(plan);
+        }
+        return plans;
+    }
+
     @Override
     @Transactional(readOnly = true)
     @SuppressWarnings("null")
@@ -434,94 +528,75 @@ public class TripServiceImpl implements TripService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TripResponse> getTripsByUser(Long userId) {
-        return tripRequestRepository.findByUserId(userId).stream()
-                .map(tripRequest -> {
-                    List<TripPlan> plans = tripPlanRepository
-                            .findByTripRequestIdOrderByDayNumberAscStartTimeAsc(tripRequest.getId());
-                        TripResponse response = toResponse(tripRequest, plans);
-                        response.setEstimatedCost(
-                            estimateCost(plans.size(), Boolean.TRUE.equals(tripRequest.getPickupRequired())));
-                        return response;
-                })
-                .collect(Collectors.toList());
+        return toResponses(tripRequestRepository.findByUserId(userId));
     }
 
     @Override
-    @Transactional
-    public TripResponse cancelTrip(Long tripRequestId) {
-        TripRequest tripRequest = tripRequestRepository.findById(tripRequestId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip not found"));
-        TripStatus status = tripRequest.getStatus();
-        if (status != TripStatus.REQUESTED && status != TripStatus.PAYMENT_PENDING) {
+    @Transactional(readOnly = true)
+    public List<TripResponse> getTripsByUser(Long userId, Long beforeId, int limit) {
+        if (limit < 1 || limit > MAX_TRIPS_PAGE_SIZE) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                "Trip can only be cancelled when status is REQUESTED or PAYMENT_PENDING. Current: " + status);
+                "limit must be between 1 and " + MAX_TRIPS_PAGE_SIZE);
         }
-        tripRequest.setStatus(TripStatus.CANCELLED);
-        tripRequestRepository.save(tripRequest);
-        return getTrip(tripRequestId);
+        PageRequest page = PageRequest.of(0, limit);
+        List<TripRequest> trips = beforeId == null
+            ? tripRequestRepository.findByUserIdOrderByIdDesc(userId, page)
+            : tripRequestRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, beforeId, page);
+        return toResponses(trips);
     }
 
-    private List<Place> rankPlaces(List<Place> places, double userLat, double userLon,
-            com.tripfactory.nomad.domain.enums.InterestType interest) {
-        return places.stream()
-            .sorted(Comparator
-                .comparing((Place p) -> interest != null && interest == p.getCategory() ? 0 : 1)
-                .thenComparing(p -> haversineKm(userLat, userLon, p.getLatitude(), p.getLongitude()))
-                .thenComparing(Place::getRating, Comparator.reverseOrder()))
-            .collect(Collectors.toList());
+    /** Responses for many trips with one plan query and one group-size query, whatever the number of trips. */
+    private List<TripResponse> toResponses(List<TripRequest> trips) {
+        if (trips.isEmpty()) {
+            return List.of();
+        }
+        List<Long> tripIds = trips.stream().map(TripRequest::getId).collect(Collectors.toList());
+        Map<Long, List<TripPlan>> plansByTrip = tripPlanRepository.findByTripRequestIdIn(tripIds).stream()
+            .collect(Collectors.groupingBy(plan -> plan.getTripRequest().getId()));
+        Set<Long> groupIds = trips.stream()
+            .map(TripRequest::getGroup)
+            .filter(Objects::nonNull)
+            .map(TripGroup::getId)
+            .collect(Collectors.toSet());
+        Map<Long, Long> groupSizes = groupIds.isEmpty() ? Map.of()
+            : tripGroupRepository.findAllById(groupIds).stream()
+                .collect(Collectors.toMap(TripGroup::getId, TripGroup::getMemberCount));
+
+        List<TripResponse> responses = new ArrayList<>(trips.size());
+        for (TripRequest tripRequest : trips) {
+            List<TripPlan> plans = plansByTrip.getOrDefault(tripRequest.getId(), List.of());
+            Long groupSize = tripRequest.getGroup() == null ? null
+                : groupSizes.getOrDefault(tripRequest.getGroup().getId(), 0L);
+            TripResponse response = toResponse(tripRequest, plans, groupSize);
+            response.setEstimatedCost(
+                estimateCost(plans.size(), Boolean.TRUE.equals(tripRequest.getPickupRequired())));
+            responses.add(response);
+        }
+        return responses;
     }
 
-    private List<TripPlan> buildPlans(TripRequest tripRequest, List<Place> rankedPlaces, int totalSlots, int perDay) {
-        List<TripPlan> plans = new ArrayList<>();
-        List<Place> candidates = rankedPlaces.subList(0, Math.min(totalSlots, rankedPlaces.size()));
-        List<Place> unassigned = new ArrayList<>(candidates);
-
-        int dayCount = (int) Math.ceil((double) totalSlots / perDay);
-        for (int day = 1; day <= dayCount; day++) {
-            List<Place> dayPlaces = new ArrayList<>();
-            double currentLat = tripRequest.getUser().getLatitude();
-            double currentLon = tripRequest.getUser().getLongitude();
-
-            while (dayPlaces.size() < perDay && !unassigned.isEmpty()) {
-                Place next = findNearestPlace(currentLat, currentLon, unassigned);
-                dayPlaces.add(next);
-                unassigned.remove(next);
-                currentLat = next.getLatitude();
-                currentLon = next.getLongitude();
-            }
-
-            dayPlaces = reorderForTimeWindows(dayPlaces);
-
-            LocalTime start = LocalTime.of(9, 0);
-            Place previous = null;
-            for (Place place : dayPlaces) {
-                TripPlan plan = new TripPlan();
-                plan.setTripRequest(tripRequest);
-                plan.setDayNumber(day);
-                plan.setPlace(place);
-                plan.setStartTime(start);
-                plan.setEndTime(start.plusHours(2));
-                double distance = previous == null
-                    ? haversineKm(tripRequest.getUser().getLatitude(),
-                        tripRequest.getUser().getLongitude(),
-                        place.getLatitude(), place.getLongitude())
-                    : haversineKm(previous.getLatitude(), previous.getLongitude(),
-                        place.getLatitude(), place.getLongitude());
-                plan.setDistanceFromPrevious(distance);
-                plans.add(plan);
-                start = start.plusHours(2);
-                previous = place;
+    @Override
+    public TripResponse cancelTrip(Long tripRequestId) {
+        Long groupId = writeTransaction.execute(status -> {
+            TripRequest tripRequest = tripRequestRepository.findById(tripRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip not found"));
+            Long tripGroupId = tripRequest.getGroup() == null ? null : tripRequest.getGroup().getId();
+            // Conditional, so of two concurrent cancels only one gives the seat back
+            if (tripRequestRepository.transitionStatus(tripRequestId, CANCELLABLE_STATUSES, TripStatus.CANCELLED) == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trip can only be cancelled when status is REQUESTED or PAYMENT_PENDING. Current: "
+                        + tripRequest.getStatus());
             }
-        }
-        return plans;
-    }
-
-    private Place findNearestPlace(double currentLat, double currentLon, List<Place> places) {
-        return places.stream()
-            .min(Comparator.comparing(place -> haversineKm(currentLat, currentLon,
-                toPrimitive(place.getLatitude()), toPrimitive(place.getLongitude()))))
-            .orElseThrow();
+            return tripGroupId;
+        });
+        // The trip stays linked to its group; only the seat is released, once the cancellation has committed
+        if (groupId != null) {
+            groupMatchingEngine.leave(groupId);
+        }
+        // A call from inside this class does not go through getTrip's transactional proxy
+        return readTransaction.execute(status -> getTrip(tripRequestId));
     }
 
     // Utility to handle Double (nullable) to double (primitive)
@@ -529,37 +604,12 @@ public class TripServiceImpl implements TripService {
         return value != null ? value : 0.0;
     }
 
-    // Simple haversine formula implementation (replace GeoUtils)
-    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
-    private List<Place> reorderForTimeWindows(List<Place> places) {
-        if (places.size() <= 1) {
-            return places;
-        }
-        int nightlifeIndex = -1;
-        for (int i = 0; i < places.size(); i++) {
-            if (places.get(i).getCategory() == com.tripfactory.nomad.domain.enums.InterestType.NIGHTLIFE) {
-                nightlifeIndex = i;
-                break;
-            }
-        }
-        if (nightlifeIndex >= 0 && nightlifeIndex != places.size() - 1) {
-            Place nightlife = places.remove(nightlifeIndex);
-            places.add(nightlife);
-        }
-        return places;
+    private TripResponse toResponse(TripRequest tripRequest, List<TripPlan> plans) {
+        Long groupSize = tripRequest.getGroup() == null ? null : tripRequest.getGroup().getMemberCount();
+        return toResponse(tripRequest, plans, groupSize);
     }
 
-    private TripResponse toResponse(TripRequest tripRequest, List<TripPlan> plans) {
+    private TripResponse toResponse(TripRequest tripRequest, List<TripPlan> plans, Long groupSize) {
         TripResponse response = new TripResponse();
         response.setTripRequestId(tripRequest.getId());
         response.setUserId(tripRequest.getUser().getId());
@@ -568,15 +618,12 @@ public class TripServiceImpl implements TripService {
         LocalDate travelDate = tripRequest.getTravelDate();
         if (travelDate == null) {
             travelDate = calculateNextWeekendDate(tripRequest.getWeekendType());
-            System.out.println("[DEBUG] Calculated default travelDate for trip " + tripRequest.getId() + ": " + travelDate);
-        } else {
-            System.out.println("[DEBUG] Using existing travelDate for trip " + tripRequest.getId() + ": " + travelDate);
         }
         response.setTravelDate(travelDate);
         // shareToken removed
         if (tripRequest.getGroup() != null) {
             response.setGroupId(tripRequest.getGroup().getId());
-            response.setGroupSize(tripRequestRepository.countByGroupId(tripRequest.getGroup().getId()));
+            response.setGroupSize(groupSize);
         }
         response.setStatus(tripRequest.getStatus());
         response.setCreatedAt(tripRequest.getCreatedAt());
@@ -623,46 +670,15 @@ public class TripServiceImpl implements TripService {
      * For TWO_DAY: next Saturday (start of weekend)
      */
     private LocalDate calculateNextWeekendDate(WeekendType weekendType) {
-        LocalDate today = LocalDate.now();
-        DayOfWeek dayOfWeek = today.getDayOfWeek();
-        
-        // Calculate days until next Saturday
-        int daysUntilSaturday = DayOfWeek.SATURDAY.getValue() - dayOfWeek.getValue();
-        if (daysUntilSaturday <= 0) {
-            daysUntilSaturday += 7; // Next week's Saturday
-        }
-        
-        return today.plusDays(daysUntilSaturday);
+        return TravelDates.nextWeekend(LocalDate.now());
     }
 
-    private TripGroup assignGroup(String city, com.tripfactory.nomad.domain.enums.InterestType interest,
+    private GroupMatchingEngine.Seat assignGroup(String city, com.tripfactory.nomad.domain.enums.InterestType interest,
             WeekendType weekendType, LocalDate travelDate) {
         // Only assign to group if travelDate is provided
         if (travelDate == null) {
             return null;
         }
-        
-        TripGroup group = tripGroupRepository
-                .findFirstByCityIgnoreCaseAndInterestAndWeekendTypeAndTravelDateAndStatusOrderByCreatedAtAsc(
-                        city, interest, weekendType, travelDate, GroupStatus.OPEN)
-                .orElseGet(() -> {
-                    TripGroup created = new TripGroup();
-                    created.setCity(city);
-                    created.setInterest(interest);
-                    created.setWeekendType(weekendType);
-                    created.setTravelDate(travelDate);
-                    created.setStatus(GroupStatus.OPEN);
-                    return tripGroupRepository.save(created);
-                });
-
-        long size = tripRequestRepository.countByGroupId(group.getId());
-        if (size >= 6) {
-            group.setStatus(GroupStatus.CLOSED);
-            return tripGroupRepository.save(group);
-        }
-        if (size + 1 >= 4) {
-            group.setStatus(GroupStatus.READY);
-        }
-        return tripGroupRepository.save(group);
+        return groupMatchingEngine.join(city, interest, weekendType, travelDate);
     }
 }
\ No newline at end of file
@@ -1,66 +1,153 @@
 package com.tripfactory.nomad.service.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tripfactory.nomad.domain.entity.User;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 import javax.crypto.SecretKey;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    static final String CACHE_NAME = "verifiedJwts";
+
     private final SecretKey secretKey;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final TokenVersions tokenVersions;
+    // Claims of recently verified tokens by SHA-256 of the token, each kept until the token's own expiry
+    private final Cache<String, Claims> verified;
 
     public JwtService(@Value("${nomad.jwt.secret}") String secret,
-            @Value("${nomad.jwt.expiration-ms}") long expirationMs) {
+            @Value("${nomad.jwt.expiration-ms}") long expirationMs,
+            @Value("${nomad.jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            MeterRegistry meterRegistry, TokenVersions tokenVersions) {
         this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(toBase64(secret)));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.tokenVersions = tokenVersions;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry(TimeUnit.MILLISECONDS.toNanos(expirationMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
     }
 
-    public String generateToken(String subject) {
+    /** Token for the user, carrying the id, role and token version that requests are authorized with. */
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
-                .setSubject(subject)
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractSubject(String token) {
-        return parseClaims(token).getSubject();
+    /**
+     * Claims of a token with a valid signature that has not expired or been revoked, or empty. A token is parsed
+     * and its signature checked once; later calls with the same token are served from the verified-token cache
+     * until the token expires, leaving only the token-version check. The returned claims are shared and must not
+     * be modified.
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String key = sha256(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims == null) {
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException ex) {
+                return Optional.empty();
+            }
+            // Tokens from before user id, role and version were issued cannot be authorized statelessly
+            if (claims.get(CLAIM_USER_ID) == null || claims.get(CLAIM_ROLE) == null
+                    || claims.get(CLAIM_TOKEN_VERSION) == null) {
+                return Optional.empty();
+            }
+            verified.put(key, claims);
+        }
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return tokenVersions.isCurrent(userId, version, claims.get(CLAIM_ROLE, String.class), claims.getSubject())
+                ? Optional.of(claims) : Optional.empty();
     }
 
-    public boolean isTokenValid(String token) {
+    private static String sha256(String token) {
         try {
-            parseClaims(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
         }
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     private String toBase64(String raw) {
         if (raw == null) {
             return "";
         }
         return java.util.Base64.getEncoder().encodeToString(raw.getBytes());
     }
-}
\ No newline at end of file
+
+    /** Expires a verified token's entry at its {@code exp}; tokens without one are kept for a token lifetime. */
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        private final long maxNanos;
+
+        UntilTokenExpiry(long maxNanos) {
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxNanos;
+            }
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.tripfactory.nomad.service.jwt;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.tripfactory.nomad.domain.projection.UserTokenState;
+import com.tripfactory.nomad.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Current token version, role and email per user, the revocation check for otherwise stateless tokens. A token
+ * is rejected once any of them differs from its claims, so a role or email change (by the application or
+ * directly in the database) ends existing sessions like {@link #revoke} does. State is cached for {@code ttl}:
+ * a revocation takes effect at once on the node that made it and within {@code ttl} on others.
+ */
+@Component
+public class TokenVersions {
+
+    static final String CACHE_NAME = "userTokenVersions";
+
+    private final UserRepository userRepository;
+    private final LoadingCache<Long, UserTokenState> versions;
+
+    public TokenVersions(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${nomad.jwt.token-version.max-size:100000}") long maxSize,
+            @Value("${nomad.jwt.token-version.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userId -> userRepository.findTokenStateById(userId).orElse(UserTokenState.UNKNOWN));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+    }
+
+    public boolean isCurrent(long userId, int version, String role, String email) {
+        UserTokenState current = versions.get(userId);
+        return current.getTokenVersion() == version && current.getRole() != null
+                && current.getRole().name().equals(role) && current.getEmail().equals(email);
+    }
+
+    /** Invalidates every token issued to the user so far; call it when a password changes. */
+    @Transactional
+    public void revoke(long userId) {
+        userRepository.incrementTokenVersion(userId);
+        // Drop the cached version only once the new one is visible, or a concurrent load could re-cache the old one
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                versions.invalidate(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.tripfactory.nomad.service.notification;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in for the SMS provider in local runs and load tests ({@code nomad.sms.gateway=local}): logs each
+ * message and takes {@code nomad.sms.local.latency} to "send" it, like a provider round trip would.
+ */
+@Component
+@ConditionalOnProperty(name = "nomad.sms.gateway", havingValue = "local")
+public class LocalSmsGateway implements SmsGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalSmsGateway.class);
+
+    private final Duration latency;
+    private final AtomicLong sent = new AtomicLong();
+
+    public LocalSmsGateway(@Value("${nomad.sms.local.latency:PT0.2S}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void send(String to, String body) {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending SMS", e);
+        }
+        sent.incrementAndGet();
+        LOGGER.info("SMS to {}: {}", to, body);
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+}
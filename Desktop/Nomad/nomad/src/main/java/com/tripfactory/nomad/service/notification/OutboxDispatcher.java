@@ -0,0 +1,268 @@
+package com.tripfactory.nomad.service.notification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tripfactory.nomad.domain.entity.NotificationOutbox;
+import com.tripfactory.nomad.domain.enums.NotificationChannel;
+import com.tripfactory.nomad.domain.enums.OutboxStatus;
+import com.tripfactory.nomad.domain.projection.OutboxChannelCount;
+import com.tripfactory.nomad.repository.NotificationOutboxRepository;
+import com.tripfactory.nomad.service.impl.NotificationServiceImpl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Delivers outbox messages in batches. A batch is claimed in a short transaction that pushes its
+ * {@code nextAttemptAt} out by a lease, then sent with no transaction or connection held, then marked sent
+ * or rescheduled with exponential backoff. Emails go out together through
+ * {@link NotificationServiceImpl#deliverEmails}; SMS are handed to {@link SmsDispatchQueue}, their rows marked
+ * {@link OutboxStatus#QUEUED} and settled when the queue reports the send. The queue can hold far more than it
+ * sends within one lease, so this node keeps renewing the lease of its queued rows until they settle; they are
+ * never claimed again while their send is pending. Several nodes can run this concurrently: claiming skips rows
+ * locked by another dispatcher, and a node that dies only delays its claimed messages until their lease expires.
+ * The pending gauge reports counts this node refreshes every {@code pending-refresh}, so a metrics scrape never
+ * queries the outbox itself.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(30);
+    private static final List<OutboxStatus> CLAIMABLE = List.of(OutboxStatus.PENDING, OutboxStatus.QUEUED);
+    private static final int RENEWAL_CHUNK = 500;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationServiceImpl delivery;
+    private final SmsDispatchQueue smsQueue;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+    private final Duration claimLease;
+    // Lease end of each row this node has queued and not yet settled
+    private final Map<Long, Instant> queuedLeases = new ConcurrentHashMap<>();
+    // PENDING messages per channel across all nodes, as of the last refreshPendingCounts
+    private final Map<NotificationChannel, AtomicLong> pendingCounts = new EnumMap<>(NotificationChannel.class);
+
+    public OutboxDispatcher(NotificationOutboxRepository outboxRepository,
+            NotificationServiceImpl delivery,
+            SmsDispatchQueue smsQueue,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${nomad.notifications.outbox.batch-size:50}") int batchSize,
+            @Value("${nomad.notifications.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${nomad.notifications.outbox.retry-backoff:PT10S}") Duration retryBackoff,
+            @Value("${nomad.notifications.outbox.retention:P7D}") Duration retention,
+            @Value("${nomad.notifications.outbox.claim-lease:PT2M}") Duration claimLease) {
+        this.outboxRepository = outboxRepository;
+        this.delivery = delivery;
+        this.smsQueue = smsQueue;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.retention = retention;
+        this.claimLease = claimLease;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            AtomicLong pending = new AtomicLong();
+            pendingCounts.put(channel, pending);
+            Gauge.builder("nomad.notifications.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox messages waiting to be delivered")
+                .tag("channel", channel.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+    }
+
+    /** Drains everything currently due, one batch at a time. Returns the number of messages attempted. */
+    @Scheduled(fixedDelayString = "${nomad.notifications.outbox.poll-interval:PT1S}")
+    public int dispatch() {
+        renewQueuedLeases();
+        int attempted = 0;
+        int sent;
+        do {
+            sent = dispatchBatch();
+            attempted += sent;
+        } while (sent == batchSize);
+        return attempted;
+    }
+
+    /** Recounts PENDING messages per channel for the pending gauge, in one grouped query. */
+    @Scheduled(fixedDelayString = "${nomad.notifications.outbox.pending-refresh:PT15S}")
+    public void refreshPendingCounts() {
+        Map<NotificationChannel, Long> counts = new EnumMap<>(NotificationChannel.class);
+        for (OutboxChannelCount row : outboxRepository.countByChannel(OutboxStatus.PENDING)) {
+            counts.put(row.getChannel(), row.getCount());
+        }
+        pendingCounts.forEach((channel, pending) -> pending.set(counts.getOrDefault(channel, 0L)));
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT5M")
+    public void purgeSent() {
+        Instant before = Instant.now().minus(retention);
+        Integer purged = transaction.execute(status -> outboxRepository.deleteSentBefore(OutboxStatus.SENT, before));
+        if (purged != null && purged > 0) {
+            LOGGER.info("Purged {} delivered outbox messages", purged);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<NotificationOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<NotificationOutbox> settled = new ArrayList<>(batch.size());
+        List<NotificationOutbox> emails = new ArrayList<>(batch.size());
+        List<SimpleMailMessage> mails = new ArrayList<>(batch.size());
+        for (NotificationOutbox message : batch) {
+            if (message.getChannel() == NotificationChannel.EMAIL) {
+                emails.add(message);
+                mails.add(toMail(message));
+            } else if (queueSms(message)) {
+                settled.add(message);
+            }
+        }
+        if (!emails.isEmpty()) {
+            List<Exception> failures = delivery.deliverEmails(mails);
+            for (int i = 0; i < emails.size(); i++) {
+                record(emails.get(i), failures.get(i));
+            }
+            settled.addAll(emails);
+        }
+        transaction.executeWithoutResult(status -> outboxRepository.saveAll(settled));
+        return batch.size();
+    }
+
+    /** Claims due messages; QUEUED rows come back only when the node that queued them stopped renewing. */
+    private List<NotificationOutbox> claimBatch() {
+        Instant now = Instant.now();
+        return transaction.execute(status -> {
+            List<NotificationOutbox> due = outboxRepository.findDueForUpdate(CLAIMABLE, now,
+                    PageRequest.of(0, batchSize));
+            for (NotificationOutbox message : due) {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setNextAttemptAt(now.plus(claimLease));
+                if (message.getChannel() == NotificationChannel.SMS) {
+                    message.setStatus(OutboxStatus.QUEUED);
+                }
+            }
+            return due;
+        });
+    }
+
+    /** Pushes out the lease of queued rows whose lease is past its first half, in one UPDATE per chunk. */
+    private void renewQueuedLeases() {
+        Instant now = Instant.now();
+        Instant renewBefore = now.plus(claimLease.dividedBy(2));
+        List<Long> due = new ArrayList<>();
+        queuedLeases.forEach((id, leaseEnd) -> {
+            if (leaseEnd.isBefore(renewBefore)) {
+                due.add(id);
+            }
+        });
+        Instant leaseEnd = now.plus(claimLease);
+        for (int from = 0; from < due.size(); from += RENEWAL_CHUNK) {
+            List<Long> chunk = due.subList(from, Math.min(due.size(), from + RENEWAL_CHUNK));
+            transaction.executeWithoutResult(status ->
+                    outboxRepository.extendLease(chunk, OutboxStatus.QUEUED, leaseEnd));
+            for (Long id : chunk) {
+                queuedLeases.replace(id, leaseEnd);
+            }
+        }
+    }
+
+    /**
+     * Hands an SMS to the queue. Returns true when the outcome is already known (sent, disabled or rejected) and
+     * recorded on {@code message}; otherwise the row keeps its claim and is settled when the send completes.
+     */
+    private boolean queueSms(NotificationOutbox message) {
+        CompletableFuture<Void> sent = smsQueue.submit(message.getRecipient(), message.getBody());
+        if (sent.isDone()) {
+            record(message, failureOf(sent));
+            return true;
+        }
+        long id = message.getId();
+        queuedLeases.put(id, message.getNextAttemptAt());
+        sent.whenComplete((ignored, failure) -> {
+            try {
+                transaction.executeWithoutResult(status ->
+                        outboxRepository.findById(id).ifPresent(row -> record(row, asException(failure))));
+            } finally {
+                queuedLeases.remove(id);
+            }
+        });
+        return false;
+    }
+
+    private static Exception failureOf(CompletableFuture<Void> done) {
+        try {
+            done.join();
+            return null;
+        } catch (CompletionException e) {
+            return asException(e.getCause());
+        }
+    }
+
+    private static Exception asException(Throwable failure) {
+        if (failure == null || failure instanceof Exception) {
+            return (Exception) failure;
+        }
+        return new IllegalStateException(failure);
+    }
+
+    private static SimpleMailMessage toMail(NotificationOutbox message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        return mail;
+    }
+
+    private void record(NotificationOutbox message, Exception failure) {
+        if (failure == null) {
+            message.setStatus(OutboxStatus.SENT);
+            message.setSentAt(Instant.now());
+            message.setLastError(null);
+            return;
+        }
+        String error = failure.getMessage() == null ? failure.getClass().getSimpleName() : failure.getMessage();
+        message.setLastError(error.length() > 512 ? error.substring(0, 512) : error);
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(OutboxStatus.FAILED);
+            LOGGER.warn("Giving up on {} to {} after {} attempts: {}", message.getChannel(),
+                    message.getRecipient(), message.getAttempts(), error);
+        } else {
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(Instant.now().plus(backoff(message.getAttempts())));
+            LOGGER.warn("{} to {} failed (attempt {}), retrying: {}", message.getChannel(),
+                    message.getRecipient(), message.getAttempts(), error);
+        }
+    }
+
+    /** retryBackoff doubled per earlier attempt, capped at 30 minutes. */
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tripfactory.nomad.service.notification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces permits evenly so callers together take at most {@code permitsPerSecond}; a rate of zero or less
+ * disables limiting. Waiting happens outside the lock, so a blocked caller does not hold up bookkeeping.
+ */
+public final class PerSecondRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    public PerSecondRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
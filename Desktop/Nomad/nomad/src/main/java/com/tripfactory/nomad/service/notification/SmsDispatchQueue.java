@@ -0,0 +1,191 @@
+package com.tripfactory.nomad.service.notification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded asynchronous SMS queue. A message is held for {@code coalesce-window} so that further messages to the
+ * same number in that window (say "trip planned" then "payment confirmed") go out as one SMS; it is then sent
+ * by a small worker pool under a shared per-second limit. {@link #submit} never blocks: it returns a future
+ * that completes once the (possibly combined) SMS was sent or failed, or fails right away when the queue is full.
+ */
+@Component
+public class SmsDispatchQueue {
+
+    /** Longest combined body; longer messages are not coalesced. Twilio splits up to 1600 characters. */
+    static final int MAX_BODY_LENGTH = 1600;
+
+    private final SmsGateway gateway;
+    private final boolean enabled;
+    private final int capacity;
+    private final long coalesceWindowMillis;
+    private final PerSecondRateLimiter rateLimiter;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    // Guarded by this; messages waiting out their coalescing window, by phone number
+    private final Map<String, PendingSms> waiting = new HashMap<>();
+    // Messages accepted but not yet sent, including those in flight; bounded by capacity
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Counter coalesced;
+
+    public SmsDispatchQueue(SmsGateway gateway, MeterRegistry meterRegistry,
+            @Value("${nomad.sms.enabled:false}") boolean enabled,
+            @Value("${nomad.sms.queue.capacity:10000}") int capacity,
+            @Value("${nomad.sms.queue.workers:4}") int workers,
+            @Value("${nomad.sms.queue.max-per-second:10}") double maxPerSecond,
+            @Value("${nomad.sms.queue.coalesce-window:PT5S}") Duration coalesceWindow) {
+        this.gateway = gateway;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.coalesceWindowMillis = coalesceWindow.toMillis();
+        this.rateLimiter = new PerSecondRateLimiter(maxPerSecond);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "sms-coalesce"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers),
+                runnable -> daemon(runnable, "sms-sender-" + threadNumber.incrementAndGet()));
+        this.sendSuccess = Timer.builder("nomad.sms.send").tag("outcome", "success").register(meterRegistry);
+        this.sendFailure = Timer.builder("nomad.sms.send").tag("outcome", "failure").register(meterRegistry);
+        this.coalesced = Counter.builder("nomad.sms.coalesced").register(meterRegistry);
+        Gauge.builder("nomad.sms.queue.depth", depth, AtomicInteger::get).register(meterRegistry);
+    }
+
+    private static final class PendingSms {
+        private final String to;
+        private final StringBuilder body;
+        private final List<CompletableFuture<Void>> senders = new ArrayList<>(2);
+
+        private PendingSms(String to, String body, CompletableFuture<Void> sender) {
+            this.to = to;
+            this.body = new StringBuilder(body);
+            this.senders.add(sender);
+        }
+
+        private boolean tryAppend(String more, CompletableFuture<Void> sender) {
+            if (body.length() + 1 + more.length() > MAX_BODY_LENGTH) {
+                return false;
+            }
+            body.append('\n').append(more);
+            senders.add(sender);
+            return true;
+        }
+    }
+
+    public CompletableFuture<Void> submit(String to, String body) {
+        if (!enabled || to == null || to.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String text = body == null ? "" : body;
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        PendingSms overflow = null;
+        synchronized (this) {
+            PendingSms existing = waiting.get(to);
+            if (existing != null && existing.tryAppend(text, sent)) {
+                coalesced.increment();
+                return sent;
+            }
+            if (depth.get() >= capacity) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("SMS queue is full"));
+            }
+            if (existing != null) {
+                // Too long to combine: send what is waiting now and start a new window with this message
+                waiting.remove(to);
+                overflow = existing;
+            }
+            PendingSms pending = new PendingSms(to, text, sent);
+            waiting.put(to, pending);
+            depth.incrementAndGet();
+            timer.schedule(() -> release(pending), coalesceWindowMillis, TimeUnit.MILLISECONDS);
+        }
+        if (overflow != null) {
+            dispatch(overflow);
+        }
+        return sent;
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    private void release(PendingSms pending) {
+        synchronized (this) {
+            if (!waiting.remove(pending.to, pending)) {
+                return;
+            }
+        }
+        dispatch(pending);
+    }
+
+    private void dispatch(PendingSms pending) {
+        try {
+            workers.execute(() -> send(pending));
+        } catch (RejectedExecutionException e) {
+            complete(pending, e);
+        }
+    }
+
+    private void send(PendingSms pending) {
+        long started = System.nanoTime();
+        Exception failure = null;
+        try {
+            rateLimiter.acquire();
+            started = System.nanoTime();
+            gateway.send(pending.to, pending.body.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        (failure == null ? sendSuccess : sendFailure).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        complete(pending, failure);
+    }
+
+    private void complete(PendingSms pending, Exception failure) {
+        depth.decrementAndGet();
+        List<CompletableFuture<Void>> senders;
+        synchronized (this) {
+            senders = List.copyOf(pending.senders);
+        }
+        for (CompletableFuture<Void> sender : senders) {
+            if (failure == null) {
+                sender.complete(null);
+            } else {
+                sender.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /** Messages still waiting or in flight are dropped; their outbox rows are retried once the claim lease ends. */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,7 @@
+package com.tripfactory.nomad.service.notification;
+
+/** Sends one SMS, blocking until the provider accepted it; failures are thrown. */
+public interface SmsGateway {
+
+    void send(String to, String body);
+}
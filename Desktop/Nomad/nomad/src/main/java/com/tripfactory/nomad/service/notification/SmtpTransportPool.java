@@ -0,0 +1,191 @@
+package com.tripfactory.nomad.service.notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * A fixed set of authenticated SMTP connections that stay open between batches, so bursts of mail do not pay
+ * a TCP/TLS/AUTH handshake per message. A batch is split across the connections and sent in parallel, subject
+ * to a shared per-second limit. A connection is recycled after {@code messages-per-connection} messages (relays
+ * commonly cap this) and reopened when the server has dropped it. Active with {@code nomad.mail.delivery=pooled}.
+ */
+@Component
+@ConditionalOnProperty(name = "nomad.mail.delivery", havingValue = "pooled")
+public class SmtpTransportPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+    private static final Exception NOT_ATTEMPTED = new IllegalStateException("Not attempted: delivery was interrupted");
+
+    private final JavaMailSenderImpl mailSender;
+    private final int size;
+    private final BlockingQueue<PooledTransport> idle;
+    private final ExecutorService senders;
+    private final PerSecondRateLimiter rateLimiter;
+    private final int messagesPerConnection;
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Counter connectionsOpened;
+
+    public SmtpTransportPool(JavaMailSender mailSender, MeterRegistry meterRegistry,
+            @Value("${nomad.mail.pool.size:4}") int size,
+            @Value("${nomad.mail.pool.max-per-second:20}") double maxPerSecond,
+            @Value("${nomad.mail.pool.messages-per-connection:100}") int messagesPerConnection) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            throw new IllegalStateException("Pooled mail delivery needs a JavaMailSenderImpl, got "
+                    + mailSender.getClass().getName());
+        }
+        this.mailSender = impl;
+        this.size = Math.max(1, size);
+        this.idle = new ArrayBlockingQueue<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            idle.add(new PooledTransport());
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(this.size, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rateLimiter = new PerSecondRateLimiter(maxPerSecond);
+        this.messagesPerConnection = Math.max(1, messagesPerConnection);
+        this.sendSuccess = Timer.builder("nomad.mail.send").tag("outcome", "success").register(meterRegistry);
+        this.sendFailure = Timer.builder("nomad.mail.send").tag("outcome", "failure").register(meterRegistry);
+        this.connectionsOpened = Counter.builder("nomad.mail.connections.opened").register(meterRegistry);
+    }
+
+    /** Sends the messages; the result has one entry per message, null when it was accepted by the server. */
+    public List<Exception> send(List<MimeMessage> messages) {
+        Exception[] failures = new Exception[messages.size()];
+        Arrays.fill(failures, NOT_ATTEMPTED);
+        int slices = Math.min(messages.size(), size);
+        List<Callable<Void>> work = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int first = slice;
+            work.add(() -> {
+                sendSlice(messages, first, slices, failures);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> done : senders.invokeAll(work)) {
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warn("SMTP sender failed: {}", e.getCause().getMessage());
+        }
+        return Arrays.asList(failures);
+    }
+
+    /** Sends every {@code stride}-th message starting at {@code first} over one pooled connection. */
+    private void sendSlice(List<MimeMessage> messages, int first, int stride, Exception[] failures)
+            throws InterruptedException {
+        PooledTransport connection = idle.take();
+        try {
+            for (int i = first; i < messages.size(); i += stride) {
+                rateLimiter.acquire();
+                failures[i] = sendOne(connection, messages.get(i));
+            }
+        } finally {
+            idle.add(connection);
+        }
+    }
+
+    private Exception sendOne(PooledTransport connection, MimeMessage message) {
+        long started = System.nanoTime();
+        Exception failure;
+        try {
+            message.saveChanges();
+            try {
+                connection.send(message);
+            } catch (MessagingException e) {
+                // A connection the server has dropped only shows up on use: reopen once and retry
+                if (connection.isOpen()) {
+                    throw e;
+                }
+                connection.close();
+                connection.send(message);
+            }
+            failure = null;
+        } catch (MessagingException | RuntimeException e) {
+            failure = e;
+        }
+        (failure == null ? sendSuccess : sendFailure).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return failure;
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        for (PooledTransport connection : idle) {
+            connection.close();
+        }
+    }
+
+    private final class PooledTransport {
+        private Transport transport;
+        private int sent;
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (transport == null || sent >= messagesPerConnection) {
+                open();
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+
+        private boolean isOpen() {
+            return transport != null && transport.isConnected();
+        }
+
+        private void open() throws MessagingException {
+            close();
+            Transport fresh = mailSender.getSession().getTransport(
+                    mailSender.getProtocol() == null ? "smtp" : mailSender.getProtocol());
+            fresh.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                    mailSender.getPassword());
+            transport = fresh;
+            sent = 0;
+            connectionsOpened.increment();
+        }
+
+        private void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOGGER.debug("Closing SMTP connection failed: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tripfactory.nomad.service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+
+@Component
+@ConditionalOnProperty(name = "nomad.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TwilioSmsGateway.class);
+
+    private final String fromNumber;
+    private final boolean configured;
+
+    public TwilioSmsGateway(@Value("${twilio.from-number:}") String fromNumber,
+            @Value("${twilio.account-sid:}") String accountSid,
+            @Value("${twilio.auth-token:}") String authToken) {
+        this.fromNumber = fromNumber;
+        this.configured = !fromNumber.isBlank() && !accountSid.isBlank() && !authToken.isBlank();
+        if (configured) {
+            Twilio.init(accountSid, authToken);
+        }
+    }
+
+    @Override
+    public void send(String to, String body) {
+        if (!configured) {
+            LOGGER.warn("SMS not configured; skipping send to {}", to);
+            return;
+        }
+        Message.creator(new PhoneNumber(to), new PhoneNumber(fromNumber), body).create();
+    }
+}
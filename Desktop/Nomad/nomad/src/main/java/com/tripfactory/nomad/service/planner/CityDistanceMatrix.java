@@ -0,0 +1,59 @@
+package com.tripfactory.nomad.service.planner;
+
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+/**
+ * Precomputed haversine distances between all places of a snapshot, stored as the strict upper triangle of
+ * the matrix in one flat {@code float[]} ({@code n(n-1)/2} entries, about 2 MB for 1,000 places). Float
+ * precision is well under a metre at city scale.
+ */
+public final class CityDistanceMatrix implements PlaceDistances {
+
+    private final int size;
+    private final float[] upper;
+
+    private CityDistanceMatrix(int size, float[] upper) {
+        this.size = size;
+        this.upper = upper;
+    }
+
+    static CityDistanceMatrix build(CityPlaceSnapshot snapshot) {
+        int n = snapshot.size();
+        double[] lats = snapshot.latitudes();
+        double[] lons = snapshot.longitudes();
+        float[] upper = new float[cellCount(n)];
+        double[] row = new double[n];
+        int offset = 0;
+        for (int i = 0; i < n - 1; i++) {
+            // Only the tail j > i of each row is kept, so only the tail is computed
+            GeoUtils.haversineKm(lats[i], lons[i], lats, lons, row, i + 1, n);
+            for (int j = i + 1; j < n; j++) {
+                upper[offset++] = (float) row[j];
+            }
+        }
+        return new CityDistanceMatrix(n, upper);
+    }
+
+    static int cellCount(int places) {
+        return (int) ((long) places * (places - 1) / 2);
+    }
+
+    @Override
+    public double between(int from, int to) {
+        if (from == to) {
+            return 0.0;
+        }
+        int i = Math.min(from, to);
+        int j = Math.max(from, to);
+        return upper[(int) ((long) i * (2 * size - i - 1) / 2) + (j - i - 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Approximate heap footprint, used as the cache weight. */
+    long sizeInBytes() {
+        return 16L + 4L * upper.length;
+    }
+}
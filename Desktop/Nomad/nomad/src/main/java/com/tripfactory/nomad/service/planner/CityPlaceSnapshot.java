@@ -0,0 +1,121 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+
+/**
+ * Immutable, column-oriented view of one city's places for the trip planner. Places are addressed by their
+ * position in the snapshot (ascending place id); coordinates, categories and ratings live in primitive arrays
+ * so planning never touches entities or unboxes values.
+ */
+public final class CityPlaceSnapshot {
+
+    private static final InterestType[] CATEGORIES = InterestType.values();
+    private static final byte NO_CATEGORY = -1;
+
+    private final String cityKey;
+    private final long[] ids;
+    private final String[] names;
+    private final String[] cities;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final byte[] categories;
+    private final double[] ratings;
+
+    private CityPlaceSnapshot(String cityKey, List<PlaceSummary> places) {
+        int size = places.size();
+        this.cityKey = cityKey;
+        this.ids = new long[size];
+        this.names = new String[size];
+        this.cities = new String[size];
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.categories = new byte[size];
+        this.ratings = new double[size];
+        for (int i = 0; i < size; i++) {
+            PlaceSummary place = places.get(i);
+            ids[i] = place.getId();
+            names[i] = place.getName();
+            cities[i] = place.getCity();
+            latitudes[i] = place.getLatitude() != null ? place.getLatitude() : 0.0;
+            longitudes[i] = place.getLongitude() != null ? place.getLongitude() : 0.0;
+            categories[i] = place.getCategory() != null ? (byte) place.getCategory().ordinal() : NO_CATEGORY;
+            ratings[i] = place.getRating() != null ? place.getRating() : 0.0;
+        }
+    }
+
+    static CityPlaceSnapshot of(String cityKey, List<PlaceSummary> places) {
+        List<PlaceSummary> sorted = new ArrayList<>(places.size());
+        for (PlaceSummary place : places) {
+            if (place.getId() != null) {
+                sorted.add(place);
+            }
+        }
+        sorted.sort(Comparator.comparing(PlaceSummary::getId));
+        return new CityPlaceSnapshot(cityKey, sorted);
+    }
+
+    public String getCityKey() {
+        return cityKey;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    /** Snapshot position of the place, or -1 when it is not part of this snapshot. */
+    public int indexOf(long placeId) {
+        int index = Arrays.binarySearch(ids, placeId);
+        return index >= 0 ? index : -1;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String city(int index) {
+        return cities[index];
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public InterestType category(int index) {
+        return categories[index] == NO_CATEGORY ? null : CATEGORIES[categories[index]];
+    }
+
+    public boolean hasCategory(int index, InterestType category) {
+        return categories[index] == category.ordinal();
+    }
+
+    public double rating(int index) {
+        return ratings[index];
+    }
+
+    /** Backing coordinate arrays for the batch distance kernel. Must not be modified. */
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link CityDistanceMatrix} per city, bounded by total matrix memory and evicted least recently used. Matrices
+ * are built on a background thread the first time a city is planned; until one is ready (and for cities larger
+ * than {@code nomad.planner.distance-matrix.max-places}) distances are computed on demand, so no request waits
+ * for a build. Entries are tied to the snapshot they were built from and dropped on catalog changes.
+ */
+@Component
+public class DistanceMatrixCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistanceMatrixCache.class);
+
+    static final String CACHE_NAME = "placeDistanceMatrix";
+
+    private static final int BUILD_QUEUE_CAPACITY = 64;
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final CityPlaceSnapshot snapshot;
+        private final CityDistanceMatrix matrix;
+    }
+
+    private final int maxPlaces;
+    private final Cache<String, Entry> matrices;
+    // Snapshot whose matrix is being built, per city, so each city has at most one build in flight
+    private final Map<String, CityPlaceSnapshot> building = new ConcurrentHashMap<>();
+    // Null when builds run on the calling thread
+    private final ThreadPoolExecutor builder;
+
+    public DistanceMatrixCache(MeterRegistry meterRegistry,
+                               @Value("${nomad.planner.distance-matrix.max-places:4000}") int maxPlaces,
+                               @Value("${nomad.planner.distance-matrix.max-memory-mb:256}") long maxMemoryMb,
+                               @Value("${nomad.planner.distance-matrix.async:true}") boolean async) {
+        this.maxPlaces = maxPlaces;
+        this.matrices = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String city, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.matrix.sizeInBytes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, matrices, CACHE_NAME);
+        // A full queue drops the build; the city keeps using on-demand distances and is retried on its next plan
+        this.builder = !async ? null : new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(BUILD_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "distance-matrix-builder");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+
+    public PlaceDistances forSnapshot(CityPlaceSnapshot snapshot) {
+        if (snapshot.size() > maxPlaces) {
+            return onDemand(snapshot);
+        }
+        CityDistanceMatrix matrix = cached(snapshot);
+        if (matrix == null) {
+            scheduleBuild(snapshot);
+            matrix = cached(snapshot);
+        }
+        return matrix != null ? matrix : onDemand(snapshot);
+    }
+
+    @EventListener
+    public void onCatalogChanged(PlaceCatalogChangedEvent event) {
+        matrices.invalidate(PlaceSpatialIndex.normalizeCity(event.getCity()));
+    }
+
+    private CityDistanceMatrix cached(CityPlaceSnapshot snapshot) {
+        Entry entry = matrices.getIfPresent(snapshot.getCityKey());
+        return entry != null && entry.snapshot == snapshot ? entry.matrix : null;
+    }
+
+    private void scheduleBuild(CityPlaceSnapshot snapshot) {
+        String cityKey = snapshot.getCityKey();
+        if (building.putIfAbsent(cityKey, snapshot) != null) {
+            return;
+        }
+        Runnable build = () -> {
+            try {
+                matrices.put(cityKey, build(snapshot));
+            } finally {
+                building.remove(cityKey, snapshot);
+            }
+        };
+        if (builder == null) {
+            build.run();
+            return;
+        }
+        try {
+            builder.execute(build);
+        } catch (RejectedExecutionException ex) {
+            building.remove(cityKey, snapshot);
+        }
+    }
+
+    private static PlaceDistances onDemand(CityPlaceSnapshot snapshot) {
+        return (from, to) -> GeoUtils.haversineKm(snapshot.latitude(from), snapshot.longitude(from),
+                snapshot.latitude(to), snapshot.longitude(to));
+    }
+
+    private static Entry build(CityPlaceSnapshot snapshot) {
+        long started = System.nanoTime();
+        CityDistanceMatrix matrix = CityDistanceMatrix.build(snapshot);
+        LOGGER.debug("Built distance matrix for {} ({} places) in {} ms", snapshot.getCityKey(), snapshot.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return new Entry(snapshot, matrix);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tripfactory.nomad.service.planner;
+
+/** Distances in km between places of one {@link CityPlaceSnapshot}, addressed by snapshot position. */
+@FunctionalInterface
+public interface PlaceDistances {
+
+    double between(int from, int to);
+}
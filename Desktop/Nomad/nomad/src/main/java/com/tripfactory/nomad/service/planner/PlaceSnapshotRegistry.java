@@ -0,0 +1,93 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Holds one {@link CityPlaceSnapshot} per city, bounded by {@code nomad.planner.snapshot-cache.max-size} and
+ * dropped after {@code nomad.planner.snapshot-cache.ttl} without use. Snapshots are loaded on first use and
+ * dropped whenever the city's catalog changes, so the next planning request sees the new places. Cities
+ * without places are not kept, so requests naming unknown cities cannot fill the cache.
+ */
+@Component
+public class PlaceSnapshotRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlaceSnapshotRegistry.class);
+
+    static final String CACHE_NAME = "placeSnapshots";
+
+    private final PlaceRepository placeRepository;
+    private final AsyncCache<String, CityPlaceSnapshot> snapshots;
+
+    public PlaceSnapshotRegistry(PlaceRepository placeRepository, MeterRegistry meterRegistry,
+                                 @Value("${nomad.planner.snapshot-cache.max-size:500}") long maxSize,
+                                 @Value("${nomad.planner.snapshot-cache.ttl:PT1H}") Duration ttl) {
+        this.placeRepository = placeRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+    }
+
+    public CityPlaceSnapshot forCity(String city) {
+        String cityKey = PlaceSpatialIndex.normalizeCity(city);
+        CompletableFuture<CityPlaceSnapshot> cached = snapshots.getIfPresent(cityKey);
+        if (cached != null) {
+            return await(cached);
+        }
+        // Publish an incomplete future and load outside the map's locks: concurrent requests for the city wait
+        // on the one load, and an invalidation while loading removes the future so the stale result is not kept.
+        CompletableFuture<CityPlaceSnapshot> loading = new CompletableFuture<>();
+        CompletableFuture<CityPlaceSnapshot> existing = snapshots.asMap().putIfAbsent(cityKey, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+        CityPlaceSnapshot snapshot;
+        try {
+            snapshot = CityPlaceSnapshot.of(cityKey, placeRepository.findSummariesByCity(city.trim()));
+        } catch (RuntimeException ex) {
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        loading.complete(snapshot);
+        if (snapshot.isEmpty()) {
+            snapshots.asMap().remove(cityKey, loading);
+        }
+        LOGGER.debug("Loaded planner snapshot for {}: {} places", cityKey, snapshot.size());
+        return snapshot;
+    }
+
+    @EventListener
+    public void onCatalogChanged(PlaceCatalogChangedEvent event) {
+        snapshots.synchronous().invalidate(PlaceSpatialIndex.normalizeCity(event.getCity()));
+    }
+
+    private static CityPlaceSnapshot await(CompletableFuture<CityPlaceSnapshot> snapshot) {
+        try {
+            return snapshot.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+import com.tripfactory.nomad.service.geo.PlaceSpatialIndex;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded cache of preview plan options keyed by (city, weekend type, geohash cell of the user). Every user in
+ * a cell gets the options planned from the cell centre (used as both current location and home), so nearby
+ * users share one computation; {@link #originFor} gives that point to callers that plan outside the cache. Entries
+ * hold planner options only, since preview tokens are minted per user on every request. Entries
+ * remember the snapshot they were planned from and are recomputed once the city's snapshot is replaced. Plans are
+ * computed outside the map's locks, as in {@link PlaceSnapshotRegistry}, so a slow plan only holds up requests
+ * for its own entry. Hit/miss/eviction counters are published as {@code cache.*} metrics with {@code cache=planPreview}.
+ */
+@Component
+public class PlanPreviewCache {
+
+    static final String CACHE_NAME = "planPreview";
+
+    @FunctionalInterface
+    public interface Loader {
+        Options load(double originLatitude, double originLongitude);
+    }
+
+    /** Loader result; partial results (some options missed the planning deadline) are returned but not cached. */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Options {
+        private final List<TripPlanner.PlanOption> options;
+        private final boolean complete;
+
+        public static Options complete(List<TripPlanner.PlanOption> options) {
+            return new Options(List.copyOf(options), true);
+        }
+
+        public static Options partial(List<TripPlanner.PlanOption> options) {
+            return new Options(List.copyOf(options), false);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Origin {
+        private final double latitude;
+        private final double longitude;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String cityKey;
+        private final WeekendType weekendType;
+        private final String cell;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final CityPlaceSnapshot snapshot;
+        private final List<TripPlanner.PlanOption> options;
+    }
+
+    private final boolean enabled;
+    private final int geohashPrecision;
+    private final AsyncCache<Key, Entry> cache;
+
+    public PlanPreviewCache(MeterRegistry meterRegistry,
+                            @Value("${nomad.planner.preview-cache.enabled:true}") boolean enabled,
+                            @Value("${nomad.planner.preview-cache.max-size:10000}") long maxSize,
+                            @Value("${nomad.planner.preview-cache.ttl:PT10M}") Duration ttl,
+                            @Value("${nomad.planner.preview-cache.geohash-precision:6}") int geohashPrecision) {
+        this.enabled = enabled;
+        this.geohashPrecision = geohashPrecision;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * The point previews for a user at ({@code latitude}, {@code longitude}) are planned from: the centre of the
+     * user's cell, or the exact coordinates with the cache disabled.
+     */
+    public Origin originFor(double latitude, double longitude) {
+        if (!enabled) {
+            return new Origin(latitude, longitude);
+        }
+        GeoUtils.BoundingBox bounds = GeoUtils.geohashBounds(GeoUtils.geohash(latitude, longitude, geohashPrecision));
+        return new Origin(bounds.getCenterLatitude(), bounds.getCenterLongitude());
+    }
+
+    /**
+     * Cached options for the user's cell, computing them with {@code loader} from the cell centre on a miss.
+     * With the cache disabled the loader runs with the exact coordinates.
+     */
+    public List<TripPlanner.PlanOption> get(CityPlaceSnapshot snapshot, WeekendType weekendType,
+            double latitude, double longitude, Loader loader) {
+        if (!enabled) {
+            return loader.load(latitude, longitude).getOptions();
+        }
+        String cell = GeoUtils.geohash(latitude, longitude, geohashPrecision);
+        GeoUtils.BoundingBox bounds = GeoUtils.geohashBounds(cell);
+        Key key = new Key(snapshot.getCityKey(), weekendType, cell);
+        while (true) {
+            CompletableFuture<Entry> cached = cache.getIfPresent(key);
+            CompletableFuture<Entry> loading = new CompletableFuture<>();
+            if (cached == null) {
+                if (cache.asMap().putIfAbsent(key, loading) == null) {
+                    return load(key, snapshot, bounds, loader, loading);
+                }
+            } else {
+                Entry entry = await(cached);
+                if (entry.snapshot == snapshot) {
+                    return entry.options;
+                }
+                // Planned from a replaced snapshot: take the slot over, unless another request just did
+                if (cache.asMap().replace(key, cached, loading)) {
+                    return load(key, snapshot, bounds, loader, loading);
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(PlaceCatalogChangedEvent event) {
+        String cityKey = PlaceSpatialIndex.normalizeCity(event.getCity());
+        cache.asMap().keySet().removeIf(key -> key.cityKey.equals(cityKey));
+    }
+
+    long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Plans from the cell centre and completes {@code loading}, which requests for the same entry wait on. Partial
+     * results and failures are handed to those requests but not kept.
+     */
+    private List<TripPlanner.PlanOption> load(Key key, CityPlaceSnapshot snapshot, GeoUtils.BoundingBox bounds,
+            Loader loader, CompletableFuture<Entry> loading) {
+        Options loaded;
+        try {
+            loaded = loader.load(bounds.getCenterLatitude(), bounds.getCenterLongitude());
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        if (!loaded.isComplete()) {
+            cache.asMap().remove(key, loading);
+        }
+        loading.complete(new Entry(snapshot, loaded.getOptions()));
+        return loaded.getOptions();
+    }
+
+    private static Entry await(CompletableFuture<Entry> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
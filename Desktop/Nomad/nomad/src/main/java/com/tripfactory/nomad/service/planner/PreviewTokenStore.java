@@ -0,0 +1,65 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Short-lived server-side copies of previewed plan options, addressed by an opaque token returned with the
+ * preview. createTrip redeems the token to persist exactly the previewed ordering without re-planning. Each
+ * token belongs to the authenticated user it was minted for and is found only for that user.
+ */
+@Component
+public class PreviewTokenStore {
+
+    static final String CACHE_NAME = "planPreviewTokens";
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PreviewedPlan {
+        private final Long userId;
+        private final CityPlaceSnapshot snapshot;
+        private final WeekendType weekendType;
+        private final TripPlanner.PlanOption option;
+    }
+
+    private final Cache<String, PreviewedPlan> plans;
+
+    public PreviewTokenStore(MeterRegistry meterRegistry,
+                             @Value("${nomad.planner.preview-token.max-size:100000}") long maxSize,
+                             @Value("${nomad.planner.preview-token.ttl:PT30M}") Duration ttl) {
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, CACHE_NAME);
+    }
+
+    public String register(Long userId, CityPlaceSnapshot snapshot, WeekendType weekendType,
+            TripPlanner.PlanOption option) {
+        String token = UUID.randomUUID().toString();
+        plans.put(token, new PreviewedPlan(userId, snapshot, weekendType, option));
+        return token;
+    }
+
+    /** The plan behind {@code token}, if it exists and was previewed by {@code userId}. */
+    public Optional<PreviewedPlan> find(String token, Long userId) {
+        if (token == null || token.isBlank() || userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(plans.getIfPresent(token)).filter(plan -> userId.equals(plan.getUserId()));
+    }
+}
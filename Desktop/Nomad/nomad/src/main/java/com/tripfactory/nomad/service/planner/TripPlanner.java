@@ -0,0 +1,467 @@
+package com.tripfactory.nomad.service.planner;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.service.route.RouteCosts;
+import com.tripfactory.nomad.service.route.RouteOptimizer;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds weekend itineraries ("&lt;INTEREST&gt; Only" per category plus a "Hybrid" mix) over a
+ * {@link CityPlaceSnapshot}. Everything works on snapshot positions and primitive arrays; callers turn the
+ * resulting stops into entities or DTOs.
+ * <p>
+ * For large cities the options of a preview are built concurrently on a small bounded pool and the request
+ * waits at most {@code nomad.planner.option-deadline-ms} for them; options that miss the deadline are left out.
+ */
+@Component
+public class TripPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripPlanner.class);
+
+    public static final String HYBRID_PLAN = "Hybrid";
+    private static final String SINGLE_INTEREST_SUFFIX = " Only";
+    private static final InterestType[] INTERESTS = InterestType.values();
+    private static final LocalTime DAY_START = LocalTime.of(9, 0);
+    private static final long SLOT_HOURS = 2;
+
+    private final RouteOptimizer routeOptimizer;
+    private final DistanceMatrixCache distanceMatrixCache;
+    private final double searchRadiusKm;
+    private final int parallelThreshold;
+    private final long optionDeadlineMs;
+    private final ThreadPoolExecutor executor;
+
+    public TripPlanner(RouteOptimizer routeOptimizer,
+                       DistanceMatrixCache distanceMatrixCache,
+                       @Value("${nomad.planner.search-radius-km:100}") double searchRadiusKm,
+                       @Value("${nomad.planner.parallel-threshold:2000}") int parallelThreshold,
+                       @Value("${nomad.planner.option-deadline-ms:500}") long optionDeadlineMs,
+                       @Value("${nomad.planner.threads:0}") int threads) {
+        this.routeOptimizer = routeOptimizer;
+        this.distanceMatrixCache = distanceMatrixCache;
+        this.searchRadiusKm = searchRadiusKm;
+        this.parallelThreshold = parallelThreshold;
+        this.optionDeadlineMs = optionDeadlineMs;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full further options are refused and the preview comes back partial, rather than
+        // the request thread building them itself past the deadline.
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 16), runnable -> {
+                    Thread thread = new Thread(runnable, "trip-planner-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    ThreadPoolExecutor executor() {
+        return executor;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PlannedStop {
+        /** Position of the place in the snapshot the plan was built from. */
+        private final int placeIndex;
+        private final int dayNumber;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final double distanceFromPrevious;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PlanOption {
+        private final String type;
+        private final List<PlannedStop> stops;
+
+        /**
+         * This option with each day's first leg measured from ({@code homeLat}, {@code homeLon}) rather than from
+         * the point it was planned from, e.g. a shared cell centre. Places, order and times are unchanged.
+         */
+        public PlanOption withHome(CityPlaceSnapshot snapshot, double homeLat, double homeLon) {
+            List<PlannedStop> rebased = new ArrayList<>(stops.size());
+            int day = -1;
+            for (PlannedStop stop : stops) {
+                if (stop.getDayNumber() == day) {
+                    rebased.add(stop);
+                    continue;
+                }
+                day = stop.getDayNumber();
+                int place = stop.getPlaceIndex();
+                rebased.add(new PlannedStop(place, day, stop.getStartTime(), stop.getEndTime(),
+                        GeoUtils.haversineKm(homeLat, homeLon, snapshot.latitude(place), snapshot.longitude(place))));
+            }
+            return new PlanOption(type, List.copyOf(rebased));
+        }
+    }
+
+    /** Options of one preview, in interest order with Hybrid last; {@code complete} is false if any timed out. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PlanOptions {
+        private final List<PlanOption> options;
+        private final boolean complete;
+    }
+
+    public static String singleInterestPlan(InterestType interest) {
+        return interest.name() + SINGLE_INTEREST_SUFFIX;
+    }
+
+    public static int totalSlots(WeekendType weekendType) {
+        return weekendType == WeekendType.TWO_DAY ? 6 : 4;
+    }
+
+    /**
+     * All plan options for the city. Places are ranked by distance from the user's position; each day starts
+     * from {@code homeLat}/{@code homeLon}.
+     */
+    public PlanOptions planAll(CityPlaceSnapshot snapshot, double userLat, double userLon,
+            double homeLat, double homeLon, WeekendType weekendType) {
+        Request request = new Request(snapshot, userLat, userLon, homeLat, homeLon, weekendType);
+        List<Callable<PlanOption>> tasks = new ArrayList<>(INTERESTS.length + 1);
+        for (InterestType interest : INTERESTS) {
+            int[] bucket = request.candidatesOf(interest);
+            if (bucket.length > 0) {
+                tasks.add(() -> new PlanOption(singleInterestPlan(interest), request.build(bucket)));
+            }
+        }
+        int[] hybrid = request.hybridCandidates();
+        if (hybrid.length > 0) {
+            tasks.add(() -> new PlanOption(HYBRID_PLAN, request.build(hybrid)));
+        }
+        if (request.candidateCount < parallelThreshold || tasks.size() <= 1) {
+            List<PlanOption> options = new ArrayList<>(tasks.size());
+            for (Callable<PlanOption> task : tasks) {
+                options.add(call(task));
+            }
+            return new PlanOptions(options, true);
+        }
+        return runWithDeadline(tasks);
+    }
+
+    /** The single option named {@code planType}, or empty when the city has no places for it. */
+    public Optional<PlanOption> plan(CityPlaceSnapshot snapshot, double userLat, double userLon,
+            double homeLat, double homeLon, WeekendType weekendType, String planType) {
+        Request request = new Request(snapshot, userLat, userLon, homeLat, homeLon, weekendType);
+        for (InterestType interest : INTERESTS) {
+            if (singleInterestPlan(interest).equals(planType)) {
+                int[] bucket = request.candidatesOf(interest);
+                return bucket.length == 0 ? Optional.empty()
+                        : Optional.of(new PlanOption(planType, request.build(bucket)));
+            }
+        }
+        if (HYBRID_PLAN.equals(planType)) {
+            int[] hybrid = request.hybridCandidates();
+            return hybrid.length == 0 ? Optional.empty() : Optional.of(new PlanOption(planType, request.build(hybrid)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Visiting order for the given snapshot positions starting at the origin, using the city's cached distance
+     * matrix. Returns indices into {@code places}.
+     */
+    public int[] route(CityPlaceSnapshot snapshot, int[] places, double originLat, double originLon) {
+        PlaceDistances distances = distanceMatrixCache.forSnapshot(snapshot);
+        int n = places.length;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = snapshot.latitude(places[i]);
+            lons[i] = snapshot.longitude(places[i]);
+        }
+        // Local search reads each pair many times; one pass into a dense k x k block beats triangular lookups
+        double[] matrix = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double km = distances.between(places[i], places[j]);
+                matrix[i * n + j] = km;
+                matrix[j * n + i] = km;
+            }
+        }
+        return routeOptimizer.optimize(RouteCosts.dense(GeoUtils.haversineKm(originLat, originLon, lats, lons), matrix));
+    }
+
+    /**
+     * Runs the option builders on the pool and keeps those done by the deadline. Builders the pool cannot take
+     * (its queue is full) are not run at all, never inline on the request thread, so the deadline holds under load.
+     */
+    private PlanOptions runWithDeadline(List<Callable<PlanOption>> tasks) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(optionDeadlineMs);
+        List<Future<PlanOption>> futures = new ArrayList<>(tasks.size());
+        int rejected = 0;
+        for (Callable<PlanOption> task : tasks) {
+            try {
+                futures.add(executor.submit(task));
+            } catch (RejectedExecutionException ex) {
+                rejected++;
+            }
+        }
+        List<PlanOption> options = new ArrayList<>(futures.size());
+        for (Future<PlanOption> future : futures) {
+            try {
+                options.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | CancellationException ex) {
+                // missed the deadline
+                future.cancel(true);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                return new PlanOptions(options, false);
+            } catch (ExecutionException ex) {
+                futures.forEach(pending -> pending.cancel(true));
+                throw propagate(ex.getCause());
+            }
+        }
+        if (options.size() < tasks.size()) {
+            LOGGER.warn("Plan generation deadline of {} ms hit: {} of {} options ready ({} refused by a full pool)",
+                    optionDeadlineMs, options.size(), tasks.size(), rejected);
+        }
+        return new PlanOptions(options, options.size() == tasks.size());
+    }
+
+    private static PlanOption call(Callable<PlanOption> task) {
+        try {
+            return task.call();
+        } catch (Exception ex) {
+            throw propagate(ex);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Per-call planning state. User distances, the radius filter and the per-category buckets are computed
+     * once, in a single pass over the snapshot, and shared read-only by all option builders.
+     */
+    private final class Request {
+        private final CityPlaceSnapshot snapshot;
+        private final PlaceDistances placeDistances;
+        private final int totalSlots;
+        private final int perDay;
+        private final double[] userDistances;
+        /** The only per-request row of distances; place-to-place distances come from the cached matrix. */
+        private final double[] homeDistances;
+        private final Map<InterestType, int[]> buckets = new EnumMap<>(InterestType.class);
+        private final int candidateCount;
+
+        private Request(CityPlaceSnapshot snapshot, double userLat, double userLon, double homeLat, double homeLon,
+                WeekendType weekendType) {
+            this.snapshot = snapshot;
+            this.placeDistances = distanceMatrixCache.forSnapshot(snapshot);
+            this.totalSlots = totalSlots(weekendType);
+            int dayCount = weekendType == WeekendType.TWO_DAY ? 2 : 1;
+            this.perDay = (int) Math.ceil((double) totalSlots / dayCount);
+            this.userDistances = GeoUtils.haversineKm(userLat, userLon, snapshot.latitudes(), snapshot.longitudes());
+            this.homeDistances = homeLat == userLat && homeLon == userLon
+                    ? userDistances
+                    : GeoUtils.haversineKm(homeLat, homeLon, snapshot.latitudes(), snapshot.longitudes());
+            boolean anyInRange = false;
+            for (double distance : userDistances) {
+                if (distance <= searchRadiusKm) {
+                    anyInRange = true;
+                    break;
+                }
+            }
+            // Nothing within the radius: plan over the whole city rather than returning nothing.
+            double radius = anyInRange ? searchRadiusKm : Double.POSITIVE_INFINITY;
+
+            int[][] positions = new int[INTERESTS.length][];
+            int[] counts = new int[INTERESTS.length];
+            int total = 0;
+            for (int i = 0; i < userDistances.length; i++) {
+                InterestType category = snapshot.category(i);
+                if (category == null || userDistances[i] > radius) {
+                    continue;
+                }
+                int c = category.ordinal();
+                if (positions[c] == null) {
+                    positions[c] = new int[8];
+                } else if (counts[c] == positions[c].length) {
+                    positions[c] = Arrays.copyOf(positions[c], counts[c] * 2);
+                }
+                positions[c][counts[c]++] = i;
+                total++;
+            }
+            for (InterestType interest : INTERESTS) {
+                int c = interest.ordinal();
+                buckets.put(interest, positions[c] == null ? new int[0] : Arrays.copyOf(positions[c], counts[c]));
+            }
+            this.candidateCount = total;
+        }
+
+        private int[] candidatesOf(InterestType interest) {
+            return buckets.get(interest);
+        }
+
+        private int[] hybridCandidates() {
+            int perInterest = Math.max(1, totalSlots / INTERESTS.length);
+            int[] hybrid = new int[0];
+            for (InterestType interest : INTERESTS) {
+                int[] bucket = buckets.get(interest);
+                int take = Math.min(perInterest, bucket.length);
+                int offset = hybrid.length;
+                hybrid = Arrays.copyOf(hybrid, offset + take);
+                System.arraycopy(bucket, 0, hybrid, offset, take);
+            }
+            return hybrid;
+        }
+
+        private List<PlannedStop> build(int[] places) {
+            int[] top = topByDistanceThenRating(places, totalSlots);
+            boolean[] assigned = new boolean[top.length];
+            int remaining = top.length;
+            List<PlannedStop> stops = new ArrayList<>(top.length);
+            int dayCount = (int) Math.ceil((double) totalSlots / perDay);
+            for (int day = 1; day <= dayCount; day++) {
+                int[] dayPlaces = new int[Math.min(perDay, remaining)];
+                int current = -1;
+                for (int slot = 0; slot < dayPlaces.length; slot++) {
+                    int nearest = -1;
+                    double nearestKm = Double.MAX_VALUE;
+                    for (int j = 0; j < top.length; j++) {
+                        if (assigned[j]) {
+                            continue;
+                        }
+                        double km = distance(current, top[j]);
+                        if (nearest < 0 || km < nearestKm) {
+                            nearest = j;
+                            nearestKm = km;
+                        }
+                    }
+                    assigned[nearest] = true;
+                    remaining--;
+                    dayPlaces[slot] = top[nearest];
+                    current = top[nearest];
+                }
+                dayPlaces = improveRoute(dayPlaces);
+                moveNightlifeLast(dayPlaces);
+
+                LocalTime start = DAY_START;
+                int previous = -1;
+                for (int place : dayPlaces) {
+                    stops.add(new PlannedStop(place, day, start, start.plusHours(SLOT_HOURS), distance(previous, place)));
+                    start = start.plusHours(SLOT_HOURS);
+                    previous = place;
+                }
+            }
+            return stops;
+        }
+
+        /** Distance in km from place {@code from} (or home when negative) to place {@code to}. */
+        private double distance(int from, int to) {
+            return from < 0 ? homeDistances[to] : placeDistances.between(from, to);
+        }
+
+        /** Re-orders a day's places with the route optimizer, starting from home. */
+        private int[] improveRoute(int[] dayPlaces) {
+            if (dayPlaces.length < 3) {
+                return dayPlaces;
+            }
+            int[] order = routeOptimizer.optimize(new RouteCosts() {
+                @Override
+                public int size() {
+                    return dayPlaces.length;
+                }
+
+                @Override
+                public double fromOrigin(int stop) {
+                    return homeDistances[dayPlaces[stop]];
+                }
+
+                @Override
+                public double between(int from, int to) {
+                    return placeDistances.between(dayPlaces[from], dayPlaces[to]);
+                }
+            });
+            int[] ordered = new int[dayPlaces.length];
+            for (int i = 0; i < order.length; i++) {
+                ordered[i] = dayPlaces[order[i]];
+            }
+            return ordered;
+        }
+
+        /**
+         * The {@code k} closest places to the user, ties broken by higher rating and then by input order.
+         * Plans only ever use a handful of slots, so an insertion-based partial sort beats sorting everything.
+         */
+        private int[] topByDistanceThenRating(int[] places, int k) {
+            int[] top = new int[Math.min(k, places.length)];
+            int size = 0;
+            for (int place : places) {
+                if (size == top.length && !ranksBefore(place, top[size - 1])) {
+                    continue;
+                }
+                int pos = size < top.length ? size++ : size - 1;
+                while (pos > 0 && ranksBefore(place, top[pos - 1])) {
+                    top[pos] = top[pos - 1];
+                    pos--;
+                }
+                top[pos] = place;
+            }
+            return top;
+        }
+
+        private boolean ranksBefore(int a, int b) {
+            int byDistance = Double.compare(userDistances[a], userDistances[b]);
+            if (byDistance != 0) {
+                return byDistance < 0;
+            }
+            return Double.compare(snapshot.rating(a), snapshot.rating(b)) > 0;
+        }
+
+        /** Nightlife is an evening activity: the first nightlife stop of the day goes last. */
+        private void moveNightlifeLast(int[] dayPlaces) {
+            for (int i = 0; i < dayPlaces.length - 1; i++) {
+                if (snapshot.hasCategory(dayPlaces[i], InterestType.NIGHTLIFE)) {
+                    int nightlife = dayPlaces[i];
+                    System.arraycopy(dayPlaces, i + 1, dayPlaces, i, dayPlaces.length - i - 1);
+                    dayPlaces[dayPlaces.length - 1] = nightlife;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.tripfactory.nomad.service.route;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nearest-neighbour construction followed by 2-opt and Or-opt local search. Improvement stops at a local
+ * optimum or when {@code nomad.planner.route-budget-ms} runs out, whichever comes first, so the greedy route
+ * is the worst case and the budget is a hard latency cap.
+ * <p>
+ * The path is held as {@code [ORIGIN, stops..., END]} where {@code END} is a free virtual stop; that turns
+ * the open route into a fixed-endpoint path so the usual move formulas apply unchanged.
+ */
+@Component
+public class LocalSearchRouteOptimizer implements RouteOptimizer {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SEGMENT = 3;
+
+    private final long budgetNanos;
+
+    public LocalSearchRouteOptimizer(@Value("${nomad.planner.route-budget-ms:50}") long budgetMs) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMs));
+    }
+
+    @Override
+    public int[] optimize(RouteCosts costs) {
+        int n = costs.size();
+        int[] greedy = nearestNeighbour(costs);
+        if (n < 3 || budgetNanos == 0) {
+            return greedy;
+        }
+        Search search = new Search(costs, greedy, System.nanoTime() + budgetNanos);
+        search.run();
+        return search.stops();
+    }
+
+    static int[] nearestNeighbour(RouteCosts costs) {
+        int n = costs.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int current = -1;
+        for (int step = 0; step < n; step++) {
+            int next = -1;
+            double nextCost = Double.MAX_VALUE;
+            for (int stop = 0; stop < n; stop++) {
+                if (visited[stop]) {
+                    continue;
+                }
+                double cost = current < 0 ? costs.fromOrigin(stop) : costs.between(current, stop);
+                if (next < 0 || cost < nextCost) {
+                    next = stop;
+                    nextCost = cost;
+                }
+            }
+            visited[next] = true;
+            order[step] = next;
+            current = next;
+        }
+        return order;
+    }
+
+    private static final class Search {
+        private final RouteCosts costs;
+        private final int n;
+        private final int origin;
+        private final int end;
+        private final long deadline;
+        private int[] path;
+
+        private Search(RouteCosts costs, int[] initial, long deadline) {
+            this.costs = costs;
+            this.n = initial.length;
+            this.origin = n;
+            this.end = n + 1;
+            this.deadline = deadline;
+            this.path = new int[n + 2];
+            path[0] = origin;
+            System.arraycopy(initial, 0, path, 1, n);
+            path[n + 1] = end;
+        }
+
+        private void run() {
+            boolean improved = true;
+            while (improved && !expired()) {
+                improved = twoOpt() | orOpt();
+            }
+        }
+
+        private int[] stops() {
+            int[] stops = new int[n];
+            System.arraycopy(path, 1, stops, 0, n);
+            return stops;
+        }
+
+        private boolean expired() {
+            return System.nanoTime() - deadline >= 0;
+        }
+
+        private double cost(int a, int b) {
+            if (a == end || b == end) {
+                return 0.0;
+            }
+            if (a == origin) {
+                return costs.fromOrigin(b);
+            }
+            if (b == origin) {
+                return costs.fromOrigin(a);
+            }
+            return costs.between(a, b);
+        }
+
+        /** Reverses path[i..j] whenever that shortens the route. */
+        private boolean twoOpt() {
+            boolean improved = false;
+            for (int i = 1; i < n; i++) {
+                if (expired()) {
+                    return improved;
+                }
+                for (int j = i + 1; j <= n; j++) {
+                    double delta = cost(path[i - 1], path[j]) + cost(path[i], path[j + 1])
+                            - cost(path[i - 1], path[i]) - cost(path[j], path[j + 1]);
+                    if (delta < -EPSILON) {
+                        reverse(i, j);
+                        improved = true;
+                    }
+                }
+            }
+            return improved;
+        }
+
+        /** Moves runs of up to three stops (optionally reversed) to a cheaper position. */
+        private boolean orOpt() {
+            boolean improved = false;
+            for (int length = 1; length <= MAX_SEGMENT; length++) {
+                for (int i = 1; i + length - 1 <= n; i++) {
+                    if (expired()) {
+                        return improved;
+                    }
+                    int e = i + length - 1;
+                    double removeGain = cost(path[i - 1], path[i]) + cost(path[e], path[e + 1])
+                            - cost(path[i - 1], path[e + 1]);
+                    for (int k = 0; k <= n; k++) {
+                        if (k >= i - 1 && k <= e) {
+                            continue;
+                        }
+                        double gap = cost(path[k], path[k + 1]);
+                        double forward = cost(path[k], path[i]) + cost(path[e], path[k + 1]) - gap;
+                        double reversed = cost(path[k], path[e]) + cost(path[i], path[k + 1]) - gap;
+                        boolean reverse = reversed < forward;
+                        if (Math.min(forward, reversed) - removeGain < -EPSILON) {
+                            move(i, e, k, reverse);
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            return improved;
+        }
+
+        private void reverse(int i, int j) {
+            while (i < j) {
+                int tmp = path[i];
+                path[i++] = path[j];
+                path[j--] = tmp;
+            }
+        }
+
+        /** Moves path[i..e] to sit between path[k] and path[k + 1]. */
+        private void move(int i, int e, int k, boolean reverse) {
+            int length = e - i + 1;
+            int[] segment = new int[length];
+            for (int s = 0; s < length; s++) {
+                segment[s] = path[reverse ? e - s : i + s];
+            }
+            int[] next = new int[path.length];
+            int out = 0;
+            for (int p = 0; p < path.length; p++) {
+                if (p >= i && p <= e) {
+                    continue;
+                }
+                next[out++] = path[p];
+                if (p == k) {
+                    System.arraycopy(segment, 0, next, out, length);
+                    out += length;
+                }
+            }
+            path = next;
+        }
+    }
+}
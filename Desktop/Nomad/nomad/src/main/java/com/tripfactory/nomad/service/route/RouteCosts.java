@@ -0,0 +1,52 @@
+package com.tripfactory.nomad.service.route;
+
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+/**
+ * Travel costs for an open route that starts at a fixed origin and visits stops {@code 0..size()-1}.
+ * Costs must be symmetric between stops.
+ */
+public interface RouteCosts {
+
+    int size();
+
+    double fromOrigin(int stop);
+
+    double between(int from, int to);
+
+    /** Great-circle distances in km, precomputed into a dense matrix; suited to the small routes users build. */
+    static RouteCosts haversine(double originLat, double originLon, double[] lats, double[] lons) {
+        int n = lats.length;
+        double[] matrix = new double[n * n];
+        double[] row = new double[n];
+        for (int i = 0; i < n; i++) {
+            GeoUtils.haversineKm(lats[i], lons[i], lats, lons, row, n);
+            System.arraycopy(row, 0, matrix, i * n, n);
+        }
+        return dense(GeoUtils.haversineKm(originLat, originLon, lats, lons), matrix);
+    }
+
+    /** Costs from an origin row and a row-major {@code n x n} matrix. The arrays are used as-is, not copied. */
+    static RouteCosts dense(double[] fromOrigin, double[] matrix) {
+        int n = fromOrigin.length;
+        if (matrix.length != n * n) {
+            throw new IllegalArgumentException("matrix must be " + n + " x " + n);
+        }
+        return new RouteCosts() {
+            @Override
+            public int size() {
+                return n;
+            }
+
+            @Override
+            public double fromOrigin(int stop) {
+                return fromOrigin[stop];
+            }
+
+            @Override
+            public double between(int from, int to) {
+                return matrix[from * n + to];
+            }
+        };
+    }
+}
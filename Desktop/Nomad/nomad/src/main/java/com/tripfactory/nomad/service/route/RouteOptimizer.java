@@ -0,0 +1,8 @@
+package com.tripfactory.nomad.service.route;
+
+/** Orders the stops of an open route (start at the origin, no return leg). */
+public interface RouteOptimizer {
+
+    /** Visiting order as stop indices of {@code costs}; always a permutation of {@code 0..costs.size()-1}. */
+    int[] optimize(RouteCosts costs);
+}
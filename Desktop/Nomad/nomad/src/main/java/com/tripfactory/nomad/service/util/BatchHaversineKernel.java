@@ -0,0 +1,15 @@
+package com.tripfactory.nomad.service.util;
+
+/**
+ * Batch haversine over primitive coordinate arrays. {@link GeoUtils} ships the scalar loop; the SIMD
+ * implementation is compiled only by the {@code vector} build profile and picked up when it is on the classpath.
+ */
+interface BatchHaversineKernel {
+
+    /** Distances in km to points {@code [from, to)}, written to the same positions of {@code out}. */
+    void haversineKm(double originLat, double originLon, double[] lats, double[] lons, double[] out, int from,
+            int to);
+
+    /** Points handled per instruction, for logging. */
+    int lanes();
+}
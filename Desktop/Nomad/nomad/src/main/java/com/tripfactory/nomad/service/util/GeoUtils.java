@@ -1,8 +1,27 @@
 package com.tripfactory.nomad.service.util;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
 public final class GeoUtils {
 
-    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoUtils.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final String GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    /**
+     * Below this many points the SIMD kernel's setup costs more than it saves. The kernel is only used when the
+     * application was built with {@code -Pvector}, the JVM was started with {@code --add-modules
+     * jdk.incubator.vector} and {@code -Dnomad.geo.vector} is not {@code false}.
+     */
+    private static final int VECTOR_MIN_POINTS = 16;
+    private static final String VECTOR_KERNEL_CLASS = "com.tripfactory.nomad.service.util.GeoVectorKernel";
+    private static final BatchHaversineKernel VECTOR_KERNEL = loadVectorKernel();
 
     private GeoUtils() {
     }
@@ -19,4 +38,183 @@ public final class GeoUtils {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         return EARTH_RADIUS_KM * c;
     }
-}
\ No newline at end of file
+
+    /** Distances in km from one origin to every point of the parallel {@code lats}/{@code lons} arrays. */
+    public static double[] haversineKm(double originLat, double originLon, double[] lats, double[] lons) {
+        double[] out = new double[lats.length];
+        haversineKm(originLat, originLon, lats, lons, out, lats.length);
+        return out;
+    }
+
+    /**
+     * Writes the distances in km from one origin to the first {@code count} points into {@code out}. Uses the
+     * JDK Vector API kernel when available and falls back to a scalar loop otherwise.
+     */
+    public static void haversineKm(double originLat, double originLon, double[] lats, double[] lons, double[] out,
+            int count) {
+        haversineKm(originLat, originLon, lats, lons, out, 0, count);
+    }
+
+    /** As {@link #haversineKm(double, double, double[], double[], double[], int)}, for points {@code [from, to)}. */
+    public static void haversineKm(double originLat, double originLon, double[] lats, double[] lons, double[] out,
+            int from, int to) {
+        if (from < 0 || from > to || to > lats.length || to > lons.length || to > out.length) {
+            throw new IllegalArgumentException("range exceeds array length");
+        }
+        if (VECTOR_KERNEL != null && to - from >= VECTOR_MIN_POINTS) {
+            VECTOR_KERNEL.haversineKm(originLat, originLon, lats, lons, out, from, to);
+        } else {
+            haversineKmScalar(originLat, originLon, lats, lons, out, from, to);
+        }
+    }
+
+    /** Scalar kernel for points {@code [from, to)}; also finishes the tail the SIMD kernel cannot fill a lane with. */
+    static void haversineKmScalar(double originLat, double originLon, double[] lats, double[] lons, double[] out,
+            int from, int to) {
+        double rOriginLat = Math.toRadians(originLat);
+        double rOriginLon = Math.toRadians(originLon);
+        double cosOrigin = Math.cos(rOriginLat);
+        for (int i = from; i < to; i++) {
+            double rLat = Math.toRadians(lats[i]);
+            double sinDLat = Math.sin((rLat - rOriginLat) / 2);
+            double sinDLon = Math.sin((Math.toRadians(lons[i]) - rOriginLon) / 2);
+            double a = sinDLat * sinDLat + cosOrigin * Math.cos(rLat) * sinDLon * sinDLon;
+            out[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+        }
+    }
+
+    public static boolean isVectorKernelEnabled() {
+        return VECTOR_KERNEL != null;
+    }
+
+    private static BatchHaversineKernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("nomad.geo.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            BatchHaversineKernel kernel = (BatchHaversineKernel) Class.forName(VECTOR_KERNEL_CLASS)
+                    .getDeclaredConstructor().newInstance();
+            double[] probe = new double[1];
+            kernel.haversineKm(0, 0, probe, probe, new double[1], 0, 1);
+            LOGGER.info("Using JDK Vector API haversine kernel ({} lanes)", kernel.lanes());
+            return kernel;
+        } catch (ClassNotFoundException ex) {
+            LOGGER.debug("Vector haversine kernel not built, using scalar haversine kernel");
+            return null;
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            LOGGER.info("JDK Vector API unavailable, using scalar haversine kernel: {}", ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Lat/lon envelope that contains every point within {@code radiusKm} of the origin. Used as a cheap
+     * prefilter; callers still apply an exact haversine check. Longitudes are clamped to [-180, 180]
+     * rather than wrapped, which is fine for the catalog's regions.
+     */
+    public static BoundingBox boundingBox(double lat, double lon, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double maxAbsLat = Math.min(90.0, Math.abs(lat) + latSpan);
+        double cosLat = Math.cos(Math.toRadians(maxAbsLat));
+        double lonSpan = cosLat < 1e-6 ? 180.0 : Math.min(180.0, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+        return new BoundingBox(
+                Math.max(-90.0, lat - latSpan), Math.min(90.0, lat + latSpan),
+                Math.max(-180.0, lon - lonSpan), Math.min(180.0, lon + lonSpan));
+    }
+
+    /** Standard base-32 geohash of the point, {@code precision} characters long (6 is roughly 1.2 x 0.6 km). */
+    public static String geohash(double lat, double lon, int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("geohash precision must be between 1 and 12");
+        }
+        double minLat = -90.0;
+        double maxLat = 90.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(GEOHASH_BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /** Cell covered by a geohash produced by {@link #geohash(double, double, int)}. */
+    public static BoundingBox geohashBounds(String geohash) {
+        double minLat = -90.0;
+        double maxLat = 90.0;
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        boolean evenBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int value = GEOHASH_BASE32.indexOf(geohash.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                boolean set = (value & mask) != 0;
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (set) {
+                        minLon = mid;
+                    } else {
+                        maxLon = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new BoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class BoundingBox {
+        private final double minLatitude;
+        private final double maxLatitude;
+        private final double minLongitude;
+        private final double maxLongitude;
+
+        public double getCenterLatitude() {
+            return (minLatitude + maxLatitude) / 2;
+        }
+
+        public double getCenterLongitude() {
+            return (minLongitude + maxLongitude) / 2;
+        }
+    }
+}
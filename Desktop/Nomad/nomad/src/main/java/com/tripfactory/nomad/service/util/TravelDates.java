@@ -0,0 +1,19 @@
+package com.tripfactory.nomad.service.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public final class TravelDates {
+
+    private TravelDates() {
+    }
+
+    /** The first Saturday after {@code today}; trips and groups without a date travel then. */
+    public static LocalDate nextWeekend(LocalDate today) {
+        int daysUntilSaturday = DayOfWeek.SATURDAY.getValue() - today.getDayOfWeek().getValue();
+        if (daysUntilSaturday <= 0) {
+            daysUntilSaturday += 7;
+        }
+        return today.plusDays(daysUntilSaturday);
+    }
+}
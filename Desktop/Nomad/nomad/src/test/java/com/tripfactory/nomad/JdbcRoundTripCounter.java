@@ -0,0 +1,83 @@
+package com.tripfactory.nomad;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+/**
+ * Counts JDBC round trips by wrapping the application's DataSource: every {@code execute*} call on a statement
+ * is one trip to the database, and so is a whole {@code executeBatch}. Round trips that run an INSERT are also
+ * counted on their own.
+ */
+@TestConfiguration
+public class JdbcRoundTripCounter implements BeanPostProcessor {
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final AtomicInteger insertRoundTrips = new AtomicInteger();
+
+    public void reset() {
+        roundTrips.set(0);
+        insertRoundTrips.set(0);
+    }
+
+    public int roundTrips() {
+        return roundTrips.get();
+    }
+
+    public int insertRoundTrips() {
+        return insertRoundTrips.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, dataSource, null, (result, method, args) -> result instanceof Connection connection
+                    ? proxy(Connection.class, connection, null, this::wrapStatement)
+                    : result);
+        }
+        return bean;
+    }
+
+    private Object wrapStatement(Object result, Method method, Object[] args) {
+        if (result instanceof Statement statement) {
+            // prepareStatement(sql, ...) fixes the SQL up front; a plain Statement passes it to each execute
+            String preparedSql = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+            return proxy(method.getReturnType(), statement, preparedSql, (value, called, calledArgs) -> value);
+        }
+        return result;
+    }
+
+    private interface ResultWrapper {
+        Object wrap(Object result, Method method, Object[] args);
+    }
+
+    private Object proxy(Class<?> type, Object target, String preparedSql, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                roundTrips.incrementAndGet();
+                String sql = args != null && args.length > 0 && args[0] instanceof String executed ? executed : preparedSql;
+                if (sql != null && sql.stripLeading().regionMatches(true, 0, "insert", 0, 6)) {
+                    insertRoundTrips.incrementAndGet();
+                }
+            }
+            if (method.getName().equals("unwrap") && args[0] instanceof Class<?> wanted && wanted.isInstance(target)) {
+                return target;
+            }
+            try {
+                return wrapper.wrap(method.invoke(target, args), method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripfactory.nomad;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import com.tripfactory.nomad.api.dto.TripCreateRequest;
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.entity.TripRequest;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.TravelMode;
+import com.tripfactory.nomad.domain.enums.TravelPreference;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+
+/** Unsaved entities and requests for tests, with the fields a test rarely cares about filled in. */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /** A culture-loving solo traveller; the email is derived from {@code name}, so names must be unique. */
+    public static User newUser(String name, String city, double latitude, double longitude) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase(Locale.ROOT).replace(' ', '.') + "@example.com");
+        user.setPasswordHash("hash");
+        user.setCity(city);
+        user.setLatitude(latitude);
+        user.setLongitude(longitude);
+        user.setInterestType(InterestType.CULTURE);
+        user.setTravelPreference(TravelPreference.SOLO);
+        return user;
+    }
+
+    public static Place newPlace(String name, String city, InterestType category, double latitude,
+            double longitude, double rating) {
+        Place place = new Place();
+        place.setName(name);
+        place.setCity(city);
+        place.setLatitude(latitude);
+        place.setLongitude(longitude);
+        place.setCategory(category);
+        place.setRating(rating);
+        return place;
+    }
+
+    /** A one-day culture trip in the user's city; a group trip when {@code group} is given, solo otherwise. */
+    public static TripRequest newTrip(User user, TripGroup group) {
+        TripRequest trip = new TripRequest();
+        trip.setUser(user);
+        trip.setGroup(group);
+        trip.setCity(user.getCity());
+        trip.setWeekendType(WeekendType.ONE_DAY);
+        trip.setInterest(InterestType.CULTURE);
+        trip.setTravelMode(group != null ? TravelMode.GROUP : TravelMode.SOLO);
+        trip.setPickupRequired(false);
+        return trip;
+    }
+
+    /** A createTrip request; the plan to book (selectedPlanType or previewToken) is left to the test. */
+    public static TripCreateRequest newTripCreateRequest(Long userId, String city, WeekendType weekendType,
+            TravelMode travelMode, LocalDate travelDate) {
+        TripCreateRequest request = new TripCreateRequest();
+        request.setUserId(userId);
+        request.setCity(city);
+        request.setWeekendType(weekendType);
+        request.setTravelMode(travelMode);
+        request.setTravelDate(travelDate);
+        return request;
+    }
+}
@@ -86,4 +86,23 @@ public class TripControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].city").value("User City"));
     }
+
+    @Test
+    void getTripsByUser_withLimit_returnsNextCursorOnFullPage() throws Exception {
+        TripResponse newer = new TripResponse();
+        newer.setTripRequestId(9L);
+        TripResponse older = new TripResponse();
+        older.setTripRequestId(7L);
+        Mockito.when(tripService.getTripsByUser(eq(10L), eq(12L), eq(2))).thenReturn(List.of(newer, older));
+        Mockito.when(tripService.getTripsByUser(eq(10L), eq(7L), eq(2))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/trips/user/10").param("beforeId", "12").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TripController.NEXT_BEFORE_ID_HEADER, "7"))
+            .andExpect(jsonPath("$[1].tripRequestId").value(7));
+
+        mockMvc.perform(get("/api/trips/user/10").param("beforeId", "7").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(TripController.NEXT_BEFORE_ID_HEADER));
+    }
 }
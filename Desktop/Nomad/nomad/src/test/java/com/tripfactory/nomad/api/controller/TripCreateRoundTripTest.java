@@ -0,0 +1,101 @@
+package com.tripfactory.nomad.api.controller;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tripfactory.nomad.JdbcRoundTripCounter;
+import com.tripfactory.nomad.TestFixtures;
+import com.tripfactory.nomad.TestMailConfig;
+import com.tripfactory.nomad.api.dto.TripCreateRequest;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.TravelMode;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.repository.UserRepository;
+import com.tripfactory.nomad.service.planner.TripPlanner;
+
+/**
+ * Pins the JDBC statements behind one {@code POST /api/trips/create}: insert the trip, insert its plans as one
+ * batch, and write the confirmation email to the outbox. On a warm request the user comes from the second-level
+ * cache and sequence values from pooled allocations, so neither is fetched.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // keep the outbox poller from querying while statements are being counted
+        "nomad.notifications.outbox.poll-interval=PT1H" })
+@AutoConfigureMockMvc(addFilters = false)
+@Import({ TestMailConfig.class, JdbcRoundTripCounter.class })
+class TripCreateRoundTripTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripCreateRoundTripTest.class);
+    private static final String CITY = "Udaipur";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private JdbcRoundTripCounter counter;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(TestFixtures.newUser("Meera", CITY, 24.58, 73.68));
+        for (int i = 0; i < 10; i++) {
+            placeRepository.save(TestFixtures.newPlace("Haveli " + i, CITY, InterestType.CULTURE, 24.57 + i * 0.004,
+                    73.68 + i * 0.003, 4.0 + i * 0.05));
+        }
+    }
+
+    @Test
+    void createTrip_usesAFixedNumberOfStatements() throws Exception {
+        // Warm up: the first trips load the city snapshot and the pooled sequences' first id blocks
+        createTrip();
+        createTrip();
+
+        counter.reset();
+        createTrip();
+        int roundTrips = counter.roundTrips();
+        LOGGER.info("POST /api/trips/create took {} JDBC round trips", roundTrips);
+
+        assertThat(roundTrips).isEqualTo(3);
+    }
+
+    private void createTrip() throws Exception {
+        TripCreateRequest request = TestFixtures.newTripCreateRequest(user.getId(), CITY, WeekendType.TWO_DAY,
+                TravelMode.SOLO, LocalDate.of(2026, 11, 7));
+        request.setSelectedPlanType(TripPlanner.singleInterestPlan(InterestType.CULTURE));
+
+        mockMvc.perform(post("/api/trips/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.plans[0].places.length()").value(TripPlanner.totalSlots(WeekendType.TWO_DAY)))
+            .andExpect(jsonPath("$.plans[0].places[0].placeName").exists());
+    }
+}
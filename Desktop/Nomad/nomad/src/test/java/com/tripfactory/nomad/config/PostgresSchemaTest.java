@@ -0,0 +1,17 @@
+package com.tripfactory.nomad.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PostgresSchemaTest {
+
+    @Test
+    void listedValues_readsTheLiteralsOfAPrintedCheckConstraint() {
+        String definition = "CHECK (((status)::text = ANY ((ARRAY['PENDING'::character varying, "
+                + "'SENT'::character varying, 'FAILED'::character varying])::text[])))";
+
+        assertThat(PostgresSchema.listedValues(definition)).containsExactly("PENDING", "SENT", "FAILED");
+        assertThat(PostgresSchema.listedValues("CHECK ((name)::text <> 'O''Neil'::text)")).containsExactly("O'Neil");
+    }
+}
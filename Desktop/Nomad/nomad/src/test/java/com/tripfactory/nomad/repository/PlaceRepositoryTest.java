@@ -0,0 +1,67 @@
+package com.tripfactory.nomad.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+
+@DataJpaTest
+class PlaceRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Test
+    void findSummariesByCity_returnsUnmanagedRowsIgnoringCase() {
+        Place fort = entityManager.persist(newPlace("Amber Fort", "Jaipur", 26.9855, 75.8513));
+        entityManager.persist(newPlace("Gateway of India", "Mumbai", 18.9220, 72.8347));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PlaceSummary> summaries = placeRepository.findSummariesByCity("JAIPUR");
+
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getId()).isEqualTo(fort.getId());
+            assertThat(summary.getName()).isEqualTo("Amber Fort");
+            assertThat(summary.getCategory()).isEqualTo(InterestType.CULTURE);
+            assertThat(summary.getLatitude()).isEqualTo(26.9855);
+        });
+        assertThat(entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().getNumberOfManagedEntities()).isZero();
+    }
+
+    @Test
+    void findByCityInBoundingBox_keepsOnlyPlacesInsideTheEnvelope() {
+        Place inside = entityManager.persist(newPlace("Hawa Mahal", "Jaipur", 26.9239, 75.8267));
+        entityManager.persist(newPlace("Jal Mahal", "Jaipur", 26.9535, 75.8462));
+        entityManager.flush();
+
+        List<PlaceSummary> summaries = placeRepository.findByCityInBoundingBox("jaipur", 26.90, 26.94, 75.80, 75.84);
+
+        assertThat(summaries).extracting(PlaceSummary::getId).containsExactly(inside.getId());
+    }
+
+    private static Place newPlace(String name, String city, double lat, double lon) {
+        Place place = new Place();
+        place.setName(name);
+        place.setCity(city);
+        place.setLatitude(lat);
+        place.setLongitude(lon);
+        place.setCategory(InterestType.CULTURE);
+        place.setRating(4.5);
+        place.setDescription("x".repeat(1500));
+        return place;
+    }
+}
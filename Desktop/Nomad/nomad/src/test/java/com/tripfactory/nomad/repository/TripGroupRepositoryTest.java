@@ -0,0 +1,86 @@
+package com.tripfactory.nomad.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.tripfactory.nomad.TestFixtures;
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.GroupStatus;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+
+@DataJpaTest
+class TripGroupRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TripGroupRepository tripGroupRepository;
+
+    @Test
+    void claimSeat_stopsAtCapacity() {
+        TripGroup group = entityManager.persistFlushFind(newGroup("jaipur|culture|one_day"));
+
+        assertThat(tripGroupRepository.claimSeat(group.getId(), 2)).isEqualTo(1);
+        assertThat(tripGroupRepository.claimSeat(group.getId(), 2)).isEqualTo(1);
+        assertThat(tripGroupRepository.claimSeat(group.getId(), 2)).isZero();
+        assertThat(tripGroupRepository.findMemberCountById(group.getId())).contains(2L);
+    }
+
+    @Test
+    void claimSeat_refusesGroupsThatAreNoLongerOpen() {
+        TripGroup group = entityManager.persistFlushFind(newGroup(null));
+
+        assertThat(tripGroupRepository.claimSeat(group.getId(), 10)).isZero();
+        assertThat(tripGroupRepository.findMemberCountById(group.getId())).contains(0L);
+    }
+
+    @Test
+    void claimAndDecrement_areNotOverwrittenByEntitySaves() {
+        TripGroup group = entityManager.persistFlushFind(newGroup("jaipur|culture|one_day"));
+
+        tripGroupRepository.claimSeat(group.getId(), 10);
+        tripGroupRepository.claimSeat(group.getId(), 10);
+        group.setStatus(GroupStatus.READY);
+        tripGroupRepository.saveAndFlush(group);
+        tripGroupRepository.decrementMemberCount(group.getId());
+
+        assertThat(tripGroupRepository.findMemberCountById(group.getId())).contains(1L);
+    }
+
+    @Test
+    void decrement_neverGoesBelowZero() {
+        TripGroup group = entityManager.persistFlushFind(newGroup(null));
+
+        assertThat(tripGroupRepository.decrementMemberCount(group.getId())).isZero();
+        assertThat(tripGroupRepository.findMemberCountById(group.getId())).contains(0L);
+    }
+
+    @Test
+    void backfill_countsExistingMembersOfUncountedGroups() {
+        TripGroup group = entityManager.persist(newGroup(null));
+        User user = entityManager.persist(TestFixtures.newUser("Asha", "Jaipur", 26.9, 75.8));
+        entityManager.persist(TestFixtures.newTrip(user, group));
+        entityManager.persist(TestFixtures.newTrip(user, group));
+        entityManager.flush();
+
+        assertThat(tripGroupRepository.backfillMemberCounts()).isEqualTo(1);
+        assertThat(tripGroupRepository.findMemberCountById(group.getId())).contains(2L);
+        assertThat(tripGroupRepository.backfillMemberCounts()).isZero();
+    }
+
+    private static TripGroup newGroup(String openKey) {
+        TripGroup group = new TripGroup();
+        group.setOpenKey(openKey);
+        group.setCity("Jaipur");
+        group.setInterest(InterestType.CULTURE);
+        group.setWeekendType(WeekendType.ONE_DAY);
+        return group;
+    }
+}
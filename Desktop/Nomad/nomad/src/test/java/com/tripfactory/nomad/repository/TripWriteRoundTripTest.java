@@ -0,0 +1,82 @@
+package com.tripfactory.nomad.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.tripfactory.nomad.JdbcRoundTripCounter;
+import com.tripfactory.nomad.TestFixtures;
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.entity.TripPlan;
+import com.tripfactory.nomad.domain.entity.TripRequest;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.InterestType;
+
+/**
+ * Round trips to persist one trip with its plan rows, the shape of createTrip's writes.
+ * With IDENTITY keys this was 1 + one INSERT per plan (13 for 12 plans); with pooled sequences and JDBC
+ * batching it is one INSERT batch per table plus the sequence calls, whatever the plan count.
+ */
+@DataJpaTest(showSql = false)
+@Import(JdbcRoundTripCounter.class)
+class TripWriteRoundTripTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TripWriteRoundTripTest.class);
+    private static final int PLANS = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TripRequestRepository tripRequestRepository;
+
+    @Autowired
+    private TripPlanRepository tripPlanRepository;
+
+    @Autowired
+    private JdbcRoundTripCounter counter;
+
+    @Test
+    void tripWithPlans_isWrittenInBatches() {
+        User user = entityManager.persist(TestFixtures.newUser("Asha", "Jaipur", 26.9, 75.8));
+        Place place = entityManager.persist(
+                TestFixtures.newPlace("Hawa Mahal", "Jaipur", InterestType.CULTURE, 26.92, 75.83, 4.6));
+        entityManager.flush();
+
+        counter.reset();
+        TripRequest trip = tripRequestRepository.save(TestFixtures.newTrip(user, null));
+        List<TripPlan> plans = new ArrayList<>(PLANS);
+        for (int i = 0; i < PLANS; i++) {
+            plans.add(newPlan(trip, place, i));
+        }
+        tripPlanRepository.saveAll(plans);
+        entityManager.flush();
+        int roundTrips = counter.roundTrips();
+        LOGGER.info("Persisting a trip with {} plans took {} JDBC round trips", PLANS, roundTrips);
+
+        assertThat(counter.insertRoundTrips()).isEqualTo(2);
+        // One INSERT batch per table plus three sequence reads for the fresh pooled sequences
+        assertThat(roundTrips).isEqualTo(5);
+    }
+
+    private static TripPlan newPlan(TripRequest trip, Place place, int index) {
+        TripPlan plan = new TripPlan();
+        plan.setTripRequest(trip);
+        plan.setPlace(place);
+        plan.setDayNumber(index < PLANS / 2 ? 1 : 2);
+        plan.setStartTime(LocalTime.of(9, 0).plusMinutes(45L * (index % (PLANS / 2))));
+        plan.setEndTime(plan.getStartTime().plusMinutes(40));
+        plan.setDistanceFromPrevious(1.5);
+        return plan;
+    }
+}
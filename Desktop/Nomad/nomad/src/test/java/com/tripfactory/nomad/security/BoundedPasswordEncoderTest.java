@@ -0,0 +1,163 @@
+package com.tripfactory.nomad.security;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tripfactory.nomad.domain.enums.UserRole;
+import com.tripfactory.nomad.service.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Set<String> hashed = ConcurrentHashMap.newKeySet();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_runOnThePoolAndAreTimed() {
+        encoder = new BoundedPasswordEncoder(4, 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("nomad.auth.password-hash").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void hashing_isRefusedAtOnceWhenThePoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 4, 1, 1, Duration.ofSeconds(30), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        awaitQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(ServiceBusyException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(meterRegistry.get("nomad.auth.password-hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    void hashing_isRefusedWhenItOutlastsTheTimeout() {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 4, 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("a")).isInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void hashing_dropsQueuedWorkWhoseCallerTimedOut() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 4, 1, 1, Duration.ofMillis(200), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Queued behind the running hash until its caller gives up; the slot is free again at once
+        assertThatThrownBy(() -> encoder.encode("b")).isInstanceOf(ServiceBusyException.class);
+        assertThat(meterRegistry.get("nomad.auth.password-hash.queue.depth").gauge().value()).isZero();
+        CompletableFuture<String> next = CompletableFuture.supplyAsync(() -> encoder.encode("c"));
+        awaitQueueDepth(1);
+
+        release.countDown();
+        CompletableFuture.allOf(running, next).handle((done, ex) -> done).get(5, TimeUnit.SECONDS);
+        assertThat(hashed).contains("a").doesNotContain("b");
+    }
+
+    @Test
+    void upgradeEncoding_flagsHashesWithALowerCost() {
+        encoder = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("x"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("x"))).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void login_rehashesAPasswordStoredWithAnOldCost() {
+        encoder = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(5), meterRegistry);
+        UserDetailsServiceImpl users = mock(UserDetailsServiceImpl.class);
+        UserPrincipal stored = new UserPrincipal(1L, "asha@example.com", UserRole.USER,
+                new BCryptPasswordEncoder(4).encode("secret"));
+        when(users.loadUserByUsername("asha@example.com")).thenReturn(stored);
+        when(users.updatePassword(any(), anyString())).thenAnswer(call -> stored);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(users);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("asha@example.com", "secret"));
+
+        verify(users).updatePassword(eq(stored), startsWith("$2a$05$"));
+    }
+
+    /** Blocks until released and, like BCrypt, does not stop when interrupted. */
+    private PasswordEncoder blockingDelegate() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashed.add(rawPassword.toString());
+                started.countDown();
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("nomad.auth.password-hash.queue.depth").gauge().value() != depth) {
+            if (System.nanoTime() > deadline) {
+                fail("Queue never reached depth " + depth);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
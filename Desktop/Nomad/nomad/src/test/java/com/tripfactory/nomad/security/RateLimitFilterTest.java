@@ -0,0 +1,83 @@
+package com.tripfactory.nomad.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tripfactory.nomad.domain.enums.UserRole;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(List.of(new RateLimitFilter.Route("preview",
+            List.of(PathPatternParser.defaultInstance.parse("/api/trips/preview")), Set.of("POST"),
+            new TokenBucketLimiter(2, 0.25, 100, System::nanoTime),
+            meterRegistry.counter("nomad.rate-limit.rejected", "route", "preview"))),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overTheLimit_returns429WithRetryAfter() throws Exception {
+        assertThat(send("POST", "/api/trips/preview", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/trips/preview", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("POST", "/api/trips/preview", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("4");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429");
+        assertThat(meterRegistry.counter("nomad.rate-limit.rejected", "route", "preview").count()).isEqualTo(1);
+        assertThat(send("POST", "/api/trips/preview", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unmatchedRequests_areNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("GET", "/api/trips/preview", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send("POST", "/api/trips/create", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void signedInUsers_areLimitedPerAccountNotPerAddress() throws Exception {
+        authenticate(1L);
+        send("POST", "/api/trips/preview", "10.0.0.1");
+        send("POST", "/api/trips/preview", "10.0.0.2");
+        assertThat(send("POST", "/api/trips/preview", "10.0.0.3").getStatus()).isEqualTo(429);
+
+        authenticate(2L);
+        assertThat(send("POST", "/api/trips/preview", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId + "@example.com", UserRole.USER, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
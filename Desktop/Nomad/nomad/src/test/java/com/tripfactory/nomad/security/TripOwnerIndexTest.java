@@ -0,0 +1,59 @@
+package com.tripfactory.nomad.security;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tripfactory.nomad.repository.TripRequestRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TripOwnerIndexTest {
+
+    private final TripRequestRepository tripRequestRepository = mock(TripRequestRepository.class);
+    private final TripOwnerIndex index = new TripOwnerIndex(tripRequestRepository, new SimpleMeterRegistry(), 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void ownerOf_readsTheOwnerOnceAndServesRepeatsFromCache() {
+        when(tripRequestRepository.findOwnerIdById(5L)).thenReturn(Optional.of(42L));
+
+        assertThat(index.ownerOf(5L)).contains(42L);
+        assertThat(index.ownerOf(5L)).contains(42L);
+
+        verify(tripRequestRepository, times(1)).findOwnerIdById(5L);
+    }
+
+    @Test
+    void ownerOf_doesNotCacheUnknownTrips() {
+        when(tripRequestRepository.findOwnerIdById(9L)).thenReturn(Optional.empty(), Optional.of(42L));
+
+        assertThat(index.ownerOf(9L)).isEmpty();
+        assertThat(index.ownerOf(9L)).contains(42L);
+    }
+
+    @Test
+    void recordOwner_takesEffectOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(tripRequestRepository.findOwnerIdById(7L)).thenReturn(Optional.empty());
+
+        index.recordOwner(7L, 42L);
+        assertThat(index.ownerOf(7L)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.ownerOf(7L)).contains(42L);
+        verify(tripRequestRepository, times(1)).findOwnerIdById(7L);
+    }
+}
@@ -0,0 +1,113 @@
+package com.tripfactory.nomad.service.geo;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+
+@ExtendWith(MockitoExtension.class)
+class PlaceSpatialIndexTest {
+
+    private static final Comparator<PlaceSpatialIndex.Hit> BY_DISTANCE =
+            Comparator.comparingDouble(PlaceSpatialIndex.Hit::getDistanceKm);
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    private PlaceSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(placeRepository.findAllSummaries()).thenReturn(Stream.of(
+                place(1L, "Bengaluru", 12.9507, 77.5848),
+                place(2L, "Bengaluru", 12.9763, 77.5929),
+                place(3L, "Bengaluru", 13.3701, 77.6870),
+                place(4L, "Mumbai", 18.9440, 72.8238)).map(PlaceSummary::of).toList());
+        index = new PlaceSpatialIndex(placeRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void query_returnsPlacesInsideRadiusOrderedByDistance() {
+        List<PlaceSpatialIndex.Hit> hits = index.query(null, 12.9716, 77.5946, 15, 10, BY_DISTANCE);
+
+        assertThat(hits).extracting(hit -> hit.getEntry().getId()).containsExactly(2L, 1L);
+        assertThat(hits.get(0).getDistanceKm()).isLessThan(hits.get(1).getDistanceKm());
+    }
+
+    @Test
+    void query_keepsOnlyTopK() {
+        List<PlaceSpatialIndex.Hit> hits = index.query("bengaluru", 12.9716, 77.5946, 100, 1, BY_DISTANCE);
+
+        assertThat(hits).extracting(hit -> hit.getEntry().getId()).containsExactly(2L);
+    }
+
+    @Test
+    void query_filtersByCity() {
+        List<PlaceSpatialIndex.Hit> hits = index.query("Mumbai", 12.9716, 77.5946, 2000, 10, BY_DISTANCE);
+
+        assertThat(hits).extracting(hit -> hit.getEntry().getId()).containsExactly(4L);
+    }
+
+    @Test
+    void catalogEvents_updateIndex() {
+        Place added = place(5L, "Bengaluru", 12.9720, 77.5950);
+        index.onCatalogChanged(PlaceCatalogChangedEvent.added(added));
+        index.onCatalogChanged(PlaceCatalogChangedEvent.removed(place(2L, "Bengaluru", 12.9763, 77.5929)));
+
+        List<PlaceSpatialIndex.Hit> hits = index.query(null, 12.9716, 77.5946, 15, 10, BY_DISTANCE);
+
+        assertThat(hits).extracting(hit -> hit.getEntry().getId()).containsExactly(5L, 1L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void refresh_picksUpPlacesChangedOnAnotherNode() {
+        when(placeRepository.findAllSummaries()).thenReturn(Stream.of(
+                place(1L, "Bengaluru", 12.9507, 77.5848),
+                place(6L, "Bengaluru", 12.9730, 77.5960)).map(PlaceSummary::of).toList());
+
+        index.refresh();
+
+        List<PlaceSpatialIndex.Hit> hits = index.query(null, 12.9716, 77.5946, 15, 10, BY_DISTANCE);
+        assertThat(hits).extracting(hit -> hit.getEntry().getId()).containsExactly(6L, 1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void catalogEvents_areIgnoredUntilTheIndexIsLoaded() {
+        PlaceSpatialIndex unloaded = new PlaceSpatialIndex(placeRepository);
+
+        unloaded.onCatalogChanged(PlaceCatalogChangedEvent.added(place(5L, "Bengaluru", 12.9720, 77.5950)));
+        unloaded.refresh();
+
+        assertThat(unloaded.isReady()).isFalse();
+        assertThat(unloaded.query(null, 12.9716, 77.5946, 15, 10, BY_DISTANCE)).isEmpty();
+    }
+
+    private static Place place(Long id, String city, double lat, double lon) {
+        Place place = new Place();
+        place.setId(id);
+        place.setName("Place " + id);
+        place.setCity(city);
+        place.setLatitude(lat);
+        place.setLongitude(lon);
+        place.setCategory(InterestType.NATURE);
+        place.setRating(4.5);
+        return place;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tripfactory.nomad.service.group;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+
+/**
+ * 1k concurrent joins through two engines that share only the database, as two nodes would.
+ * Logs throughput and checks that no seat is lost, no group overfills and no key has two joinable groups.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(GroupMatchingEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupMatchingEngineStressTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupMatchingEngineStressTest.class);
+    private static final int JOINS = 1000;
+    private static final int THREADS = 32;
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2026, 11, 7);
+
+    @Autowired
+    private GroupMatchingEngine engine;
+
+    @Autowired
+    private TripGroupRepository tripGroupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearGroups() {
+        tripGroupRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentJoins_neverOverfillOrDuplicateOpenGroups() throws Exception {
+        GroupMatchingEngine otherNode = new GroupMatchingEngine(tripGroupRepository, transactionManager, 64);
+        InterestType[] interests = { InterestType.CULTURE, InterestType.FOOD, InterestType.NATURE };
+        List<Callable<GroupMatchingEngine.Seat>> joins = new ArrayList<>(JOINS);
+        for (int i = 0; i < JOINS; i++) {
+            GroupMatchingEngine node = i % 2 == 0 ? engine : otherNode;
+            InterestType interest = interests[i % interests.length];
+            LocalDate travelDate = TRAVEL_DATE.plusWeeks(i % 4);
+            joins.add(() -> node.join("Jaipur", interest, WeekendType.ONE_DAY, travelDate));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<GroupMatchingEngine.Seat>> seats;
+        try {
+            seats = pool.invokeAll(joins);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        LOGGER.info("{} concurrent group joins on {} threads: {} joins/s", JOINS, THREADS,
+                Math.round(JOINS / seconds));
+
+        Map<Long, Long> seatsByGroup = new HashMap<>();
+        for (Future<GroupMatchingEngine.Seat> seat : seats) {
+            seatsByGroup.merge(seat.get().getGroupId(), 1L, Long::sum);
+        }
+        List<TripGroup> groups = tripGroupRepository.findAll();
+        assertThat(groups.stream().mapToLong(TripGroup::getMemberCount).sum()).isEqualTo(JOINS);
+        assertThat(groups).allSatisfy(group -> {
+            assertThat(group.getMemberCount()).isBetween(1L, (long) GroupMatchingEngine.MAX_SIZE);
+            assertThat(group.getMemberCount()).isEqualTo(seatsByGroup.get(group.getId()));
+        });
+        Map<String, Long> joinable = groups.stream()
+                .map(TripGroup::getOpenKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertThat(joinable.values()).allSatisfy(count -> assertThat(count).isEqualTo(1L));
+    }
+
+    @Test
+    void join_refusesToRunInsideACallersTransaction() {
+        TransactionTemplate booking = new TransactionTemplate(transactionManager);
+
+        assertThatIllegalStateException().isThrownBy(() -> booking.executeWithoutResult(status ->
+                engine.join("Jaipur", InterestType.FOOD, WeekendType.TWO_DAY, TRAVEL_DATE)));
+        assertThat(tripGroupRepository.count()).isZero();
+    }
+
+    @Test
+    void leave_handsTheSeatToTheNextJoin() {
+        GroupMatchingEngine.Seat seat = engine.join("Jaipur", InterestType.FOOD, WeekendType.TWO_DAY, TRAVEL_DATE);
+        engine.leave(seat.getGroupId());
+
+        assertThat(tripGroupRepository.findMemberCountById(seat.getGroupId())).contains(0L);
+        GroupMatchingEngine.Seat next = engine.join("Jaipur", InterestType.FOOD, WeekendType.TWO_DAY, TRAVEL_DATE);
+        assertThat(next.getGroupId()).isEqualTo(seat.getGroupId());
+        assertThat(next.getMemberCount()).isEqualTo(1L);
+    }
+}
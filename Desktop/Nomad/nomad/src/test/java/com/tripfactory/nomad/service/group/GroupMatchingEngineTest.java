@@ -0,0 +1,124 @@
+package com.tripfactory.nomad.service.group;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tripfactory.nomad.config.TripGroupBackfill;
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.enums.GroupStatus;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+
+/** Groups outside the plain join path: opened ahead of bookings, created before open keys, or losing members. */
+@DataJpaTest(showSql = false)
+@Import(GroupMatchingEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupMatchingEngineTest {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2026, 11, 14);
+
+    @Autowired
+    private GroupMatchingEngine engine;
+
+    @Autowired
+    private TripGroupRepository tripGroupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearGroups() {
+        tripGroupRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void open_createsAnEmptyGroupThatBookingsJoin() {
+        TripGroup opened = engine.open("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE);
+
+        assertThat(opened.getMemberCount()).isZero();
+        assertThat(engine.open(" jaipur ", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE).getId())
+                .isEqualTo(opened.getId());
+        GroupMatchingEngine.Seat seat = engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE);
+        assertThat(seat.getGroupId()).isEqualTo(opened.getId());
+        assertThat(seat.getMemberCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void backfill_letsBookingsJoinTheOldestLegacyOpenGroupAgain() {
+        TripGroup oldest = tripGroupRepository.saveAndFlush(legacyGroup(2));
+        TripGroup newer = tripGroupRepository.saveAndFlush(legacyGroup(1));
+        TripGroup full = legacyGroup(4);
+        full.setInterest(InterestType.FOOD);
+        full = tripGroupRepository.saveAndFlush(full);
+
+        new TripGroupBackfill(tripGroupRepository, transactionManager).run();
+
+        GroupMatchingEngine.Seat seat = engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE);
+        assertThat(seat.getGroupId()).isEqualTo(oldest.getId());
+        assertThat(seat.getMemberCount()).isEqualTo(3L);
+        assertThat(tripGroupRepository.findById(newer.getId()).orElseThrow().getOpenKey()).isNull();
+        assertThat(tripGroupRepository.findById(full.getId()).orElseThrow().getOpenKey()).isNull();
+    }
+
+    @Test
+    void leave_reopensAFilledGroupThatDropsBelowReadySize() {
+        long groupId = fill();
+
+        engine.leave(groupId);
+
+        TripGroup reopened = tripGroupRepository.findById(groupId).orElseThrow();
+        assertThat(reopened.getStatus()).isEqualTo(GroupStatus.OPEN);
+        assertThat(reopened.getOpenKey()).isNotNull();
+        GroupMatchingEngine.Seat seat = engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE);
+        assertThat(seat.getGroupId()).isEqualTo(groupId);
+        assertThat(seat.getMemberCount()).isEqualTo(GroupMatchingEngine.READY_SIZE);
+    }
+
+    @Test
+    void leave_leavesTheKeyWithAGroupOpenedSinceFilling() {
+        long filledId = fill();
+        long newerId = engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE).getGroupId();
+
+        engine.leave(filledId);
+
+        TripGroup filled = tripGroupRepository.findById(filledId).orElseThrow();
+        assertThat(filled.getStatus()).isEqualTo(GroupStatus.READY);
+        assertThat(filled.getMemberCount()).isEqualTo(GroupMatchingEngine.READY_SIZE - 1L);
+        assertThat(engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE).getGroupId())
+                .isEqualTo(newerId);
+    }
+
+    /** Joins until the group becomes READY and returns its id. */
+    private long fill() {
+        GroupMatchingEngine.Seat seat = null;
+        for (int i = 0; i < GroupMatchingEngine.READY_SIZE; i++) {
+            seat = engine.join("Jaipur", InterestType.CULTURE, WeekendType.ONE_DAY, TRAVEL_DATE);
+        }
+        assertThat(tripGroupRepository.findById(seat.getGroupId()).orElseThrow().getStatus())
+                .isEqualTo(GroupStatus.READY);
+        return seat.getGroupId();
+    }
+
+    /** An OPEN group as the pre-engine code left it: counted, dated, no open key. */
+    private static TripGroup legacyGroup(long members) {
+        TripGroup group = new TripGroup();
+        group.setCity("Jaipur");
+        group.setInterest(InterestType.CULTURE);
+        group.setWeekendType(WeekendType.ONE_DAY);
+        group.setTravelDate(TRAVEL_DATE);
+        group.setStatus(GroupStatus.OPEN);
+        group.setMemberCount(members);
+        return group;
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.tripfactory.nomad.api.dto.TripGroupCreateRequest;
 import com.tripfactory.nomad.api.dto.TripGroupMemberResponse;
 import com.tripfactory.nomad.api.dto.TripGroupResponse;
 import com.tripfactory.nomad.domain.entity.TripGroup;
@@ -26,6 +28,8 @@ import com.tripfactory.nomad.domain.enums.WeekendType;
 import com.tripfactory.nomad.repository.TripGroupRepository;
 import com.tripfactory.nomad.repository.TripRequestRepository;
 import com.tripfactory.nomad.service.exception.ResourceNotFoundException;
+import com.tripfactory.nomad.service.group.GroupMatchingEngine;
+import com.tripfactory.nomad.service.util.TravelDates;
 
 @ExtendWith(MockitoExtension.class)
 class TripGroupServiceImplTest {
@@ -36,6 +40,9 @@ class TripGroupServiceImplTest {
     @Mock
     private TripRequestRepository tripRequestRepository;
 
+    @Mock
+    private GroupMatchingEngine groupMatchingEngine;
+
     @InjectMocks
     private TripGroupServiceImpl tripGroupService;
 
@@ -48,9 +55,9 @@ class TripGroupServiceImplTest {
         group.setWeekendType(WeekendType.TWO_DAY);
         group.setStatus(GroupStatus.READY);
         group.setCreatedAt(LocalDateTime.now());
+        group.setMemberCount(3L);
 
         when(tripGroupRepository.findById(10L)).thenReturn(Optional.of(group));
-        when(tripRequestRepository.countByGroupId(10L)).thenReturn(3L);
 
         TripGroupResponse response = tripGroupService.getGroup(10L);
 
@@ -62,6 +69,33 @@ class TripGroupServiceImplTest {
         assertThat(response.getSize()).isEqualTo(3L);
     }
 
+    @Test
+    void createGroup_opensAJoinableGroupThroughTheMatchingEngine() {
+        TripGroup group = new TripGroup();
+        group.setId(12L);
+        group.setCity("Jaipur");
+        group.setStatus(GroupStatus.OPEN);
+        when(groupMatchingEngine.open(eq("Jaipur"), eq(InterestType.FOOD), eq(WeekendType.ONE_DAY), any()))
+                .thenReturn(group);
+        TripGroupCreateRequest dated = new TripGroupCreateRequest();
+        dated.setCity("Jaipur");
+        dated.setInterest(InterestType.FOOD);
+        dated.setWeekendType(WeekendType.ONE_DAY);
+        dated.setTravelDate(LocalDate.of(2026, 11, 14));
+
+        assertThat(tripGroupService.createGroup(dated).getId()).isEqualTo(12L);
+
+        TripGroupCreateRequest undated = new TripGroupCreateRequest();
+        undated.setCity("Jaipur");
+        undated.setInterest(InterestType.FOOD);
+        undated.setWeekendType(WeekendType.ONE_DAY);
+        tripGroupService.createGroup(undated);
+        verify(groupMatchingEngine).open("Jaipur", InterestType.FOOD, WeekendType.ONE_DAY, LocalDate.of(2026, 11, 14));
+        verify(groupMatchingEngine).open("Jaipur", InterestType.FOOD, WeekendType.ONE_DAY,
+                TravelDates.nextWeekend(LocalDate.now()));
+        verifyNoInteractions(tripGroupRepository);
+    }
+
     @Test
     void getGroup_throwsWhenMissing() {
         when(tripGroupRepository.findById(99L)).thenReturn(Optional.empty());
@@ -0,0 +1,165 @@
+package com.tripfactory.nomad.service.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tripfactory.nomad.TestFixtures;
+import com.tripfactory.nomad.TestMailConfig;
+import com.tripfactory.nomad.api.dto.TripCreateRequest;
+import com.tripfactory.nomad.api.dto.TripResponse;
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.entity.TripGroup;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.GroupStatus;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.TravelMode;
+import com.tripfactory.nomad.domain.enums.TripStatus;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.repository.TripGroupRepository;
+import com.tripfactory.nomad.repository.TripRequestRepository;
+import com.tripfactory.nomad.repository.UserRepository;
+import com.tripfactory.nomad.service.TripService;
+import com.tripfactory.nomad.service.group.GroupMatchingEngine;
+import com.tripfactory.nomad.service.planner.TripPlanner;
+
+/**
+ * Concurrent group bookings against a two-connection pool. A booking that took its group seat from inside its
+ * own transaction needed a second connection while holding the first, so a handful of them exhausted the pool
+ * and timed out; seats are now taken before the booking transaction opens.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trip-concurrency;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@Import(TestMailConfig.class)
+class TripServiceImplConcurrencyTest {
+
+    private static final int BOOKINGS = 12;
+    private static final String CITY = "Udaipur";
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2026, 12, 5);
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private TripGroupRepository tripGroupRepository;
+
+    @Autowired
+    private TripRequestRepository tripRequestRepository;
+
+    @BeforeEach
+    void addPlaces() {
+        if (placeRepository.count() == 0) {
+            for (int i = 0; i < 6; i++) {
+                placeRepository.save(newPlace(i));
+            }
+        }
+    }
+
+    @Test
+    void concurrentGroupBookings_completeOnASmallPool() throws Exception {
+        List<Callable<TripResponse>> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Long userId = userRepository.save(newUser(i)).getId();
+            bookings.add(() -> tripService.createTrip(newRequest(userId, TRAVEL_DATE)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKINGS);
+        List<Future<TripResponse>> responses;
+        try {
+            responses = pool.invokeAll(bookings, 60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (Future<TripResponse> response : responses) {
+            assertThat(response.get().getGroupId()).isNotNull();
+        }
+        List<TripGroup> groups = tripGroupRepository.findAll().stream()
+                .filter(group -> TRAVEL_DATE.equals(group.getTravelDate()))
+                .toList();
+        assertThat(groups.stream().mapToLong(TripGroup::getMemberCount).sum()).isEqualTo(BOOKINGS);
+    }
+
+    @Test
+    void concurrentCancels_releaseOneSeatAndReopenTheGroup() throws Exception {
+        LocalDate travelDate = TRAVEL_DATE.plusWeeks(1);
+        List<TripResponse> trips = new ArrayList<>();
+        for (int i = 0; i < GroupMatchingEngine.READY_SIZE; i++) {
+            Long userId = userRepository.save(newUser(100 + i)).getId();
+            trips.add(tripService.createTrip(newRequest(userId, travelDate)));
+        }
+        Long groupId = trips.get(0).getGroupId();
+        assertThat(tripGroupRepository.findById(groupId).orElseThrow().getStatus()).isEqualTo(GroupStatus.READY);
+
+        Long cancelled = trips.get(1).getTripRequestId();
+        Callable<TripResponse> cancel = () -> tripService.cancelTrip(cancelled);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<TripResponse>> cancels;
+        try {
+            cancels = pool.invokeAll(List.of(cancel, cancel), 60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int succeeded = 0;
+        for (Future<TripResponse> result : cancels) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(ResponseStatusException.class);
+            }
+        }
+        assertThat(succeeded).isEqualTo(1);
+        TripGroup group = tripGroupRepository.findById(groupId).orElseThrow();
+        assertThat(group.getMemberCount()).isEqualTo(GroupMatchingEngine.READY_SIZE - 1L);
+        assertThat(group.getStatus()).isEqualTo(GroupStatus.OPEN);
+        assertThat(tripRequestRepository.findById(cancelled).orElseThrow().getStatus())
+                .isEqualTo(TripStatus.CANCELLED);
+        assertThat(tripService.getTrip(cancelled).getGroupId()).isEqualTo(groupId);
+        Long nextUserId = userRepository.save(newUser(200)).getId();
+        assertThat(tripService.createTrip(newRequest(nextUserId, travelDate)).getGroupId()).isEqualTo(groupId);
+    }
+
+    private static TripCreateRequest newRequest(Long userId, LocalDate travelDate) {
+        TripCreateRequest request = TestFixtures.newTripCreateRequest(userId, CITY, WeekendType.ONE_DAY,
+                TravelMode.GROUP, travelDate);
+        request.setInterest(InterestType.CULTURE);
+        request.setSelectedPlanType(TripPlanner.singleInterestPlan(InterestType.CULTURE));
+        return request;
+    }
+
+    private static User newUser(int index) {
+        return TestFixtures.newUser("Traveller " + index, CITY, 24.58, 73.71);
+    }
+
+    private static Place newPlace(int index) {
+        return TestFixtures.newPlace("Palace " + index, CITY, InterestType.CULTURE, 24.57 + index * 0.004,
+                73.68 + index * 0.004, 4.5);
+    }
+}
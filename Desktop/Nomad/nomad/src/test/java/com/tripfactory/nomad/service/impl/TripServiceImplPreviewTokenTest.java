@@ -0,0 +1,130 @@
+package com.tripfactory.nomad.service.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.tripfactory.nomad.TestFixtures;
+import com.tripfactory.nomad.TestMailConfig;
+import com.tripfactory.nomad.api.dto.PlanPreviewRequest;
+import com.tripfactory.nomad.api.dto.TripCreateRequest;
+import com.tripfactory.nomad.api.dto.TripPlanItemResponse;
+import com.tripfactory.nomad.api.dto.TripPlanOptionResponse;
+import com.tripfactory.nomad.api.dto.TripResponse;
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.enums.TravelMode;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.repository.UserRepository;
+import com.tripfactory.nomad.security.UserPrincipal;
+import com.tripfactory.nomad.service.TripService;
+
+/** Preview tokens belong to the authenticated caller, and name the one option they book. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:trip-preview-token;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@Import(TestMailConfig.class)
+class TripServiceImplPreviewTokenTest {
+
+    private static final String CITY = "Mysuru";
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        if (placeRepository.count() == 0) {
+            for (int i = 0; i < 8; i++) {
+                placeRepository.save(TestFixtures.newPlace("Mysuru sight " + i, CITY,
+                        i % 2 == 0 ? InterestType.CULTURE : InterestType.NATURE, 12.29 + i * 0.004, 76.63 + i * 0.004,
+                        4.0 + i * 0.05));
+            }
+        }
+        owner = userRepository.findByEmail("owner@example.com")
+                .orElseGet(() -> userRepository.save(TestFixtures.newUser("Owner", CITY, 12.30, 76.65)));
+        other = userRepository.findByEmail("other@example.com")
+                .orElseGet(() -> userRepository.save(TestFixtures.newUser("Other", CITY, 12.30, 76.65)));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void previewToken_isBoundToThePrincipalNotTheRequestBody() {
+        authenticate(owner);
+        // The body names another user; the token is still minted for the caller
+        TripPlanOptionResponse option = preview(other.getId());
+
+        authenticate(other);
+        TripCreateRequest request = newRequest(other.getId(), option.getPreviewToken(), null);
+        assertThatThrownBy(() -> tripService.createTrip(request))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getReason()).isEqualTo("selectedPlanType is required"));
+
+        authenticate(owner);
+        TripResponse trip = tripService.createTrip(newRequest(owner.getId(), option.getPreviewToken(), null));
+        assertThat(trip.getPlans().get(0).getPlaces()).extracting(TripPlanItemResponse::getPlaceName)
+                .containsExactlyElementsOf(option.getPlaces().stream().map(TripPlanItemResponse::getPlaceName).toList());
+    }
+
+    @Test
+    void createTrip_rejectsASelectedPlanTypeThatContradictsTheToken() {
+        authenticate(owner);
+        TripPlanOptionResponse option = preview(owner.getId());
+        String otherType = option.getType().equals("Hybrid") ? "CULTURE Only" : "Hybrid";
+
+        assertThatThrownBy(() -> tripService.createTrip(newRequest(owner.getId(), option.getPreviewToken(), otherType)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(tripService.createTrip(newRequest(owner.getId(), option.getPreviewToken(), option.getType()))
+                .getTripRequestId()).isNotNull();
+    }
+
+    @Test
+    void preview_mintsNoTokensWithoutAnAuthenticatedCaller() {
+        assertThat(preview(owner.getId()).getPreviewToken()).isNull();
+    }
+
+    private TripPlanOptionResponse preview(Long userId) {
+        PlanPreviewRequest request = new PlanPreviewRequest();
+        request.setUserId(userId);
+        request.setCity(CITY);
+        request.setWeekendType(WeekendType.ONE_DAY);
+        return tripService.previewPlans(request).getPlanOptions().get(0);
+    }
+
+    private static TripCreateRequest newRequest(Long userId, String previewToken, String selectedPlanType) {
+        TripCreateRequest request = TestFixtures.newTripCreateRequest(userId, CITY, WeekendType.ONE_DAY,
+                TravelMode.SOLO, LocalDate.of(2026, 11, 21));
+        request.setPreviewToken(previewToken);
+        request.setSelectedPlanType(selectedPlanType);
+        return request;
+    }
+
+    private static void authenticate(User user) {
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
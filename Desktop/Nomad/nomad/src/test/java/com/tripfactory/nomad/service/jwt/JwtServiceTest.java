@@ -0,0 +1,90 @@
+package com.tripfactory.nomad.service.jwt;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.entity.User;
+import com.tripfactory.nomad.domain.enums.UserRole;
+import com.tripfactory.nomad.security.UserPrincipal;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test_secret_at_least_32_characters_long";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenVersions tokenVersions = mock(TokenVersions.class);
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 100, meterRegistry, tokenVersions);
+
+    @Test
+    void verify_returnsClaimsAndServesRepeatsFromCache() {
+        when(tokenVersions.isCurrent(7L, 2, "ADMIN", "asha@example.com")).thenReturn(true);
+        String token = jwtService.generateToken(user());
+
+        Claims first = jwtService.verify(token).orElseThrow();
+        Claims second = jwtService.verify(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", JwtService.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        UserPrincipal principal = UserPrincipal.fromClaims(first);
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("asha@example.com");
+        assertThat(principal.getRole()).isEqualTo(UserRole.ADMIN);
+    }
+
+    @Test
+    void verify_rejectsRevokedTokensEvenWhenCached() {
+        when(tokenVersions.isCurrent(7L, 2, "ADMIN", "asha@example.com")).thenReturn(true, false);
+        String token = jwtService.generateToken(user());
+
+        assertThat(jwtService.verify(token)).isPresent();
+        assertThat(jwtService.verify(token)).isEmpty();
+    }
+
+    @Test
+    void verify_rejectsTamperedForeignMalformedAndLegacyTokens() {
+        when(tokenVersions.isCurrent(anyLong(), anyInt(), anyString(), anyString())).thenReturn(true);
+        String token = jwtService.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = new JwtService(SECRET.replace('t', 'x'), 60_000, 100, meterRegistry, tokenVersions)
+                .generateToken(user());
+        String legacy = Jwts.builder()
+                .setSubject("asha@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(jwtService.verify(tampered)).isEmpty();
+        assertThat(jwtService.verify(foreign)).isEmpty();
+        assertThat(jwtService.verify("not-a-jwt")).isEmpty();
+        assertThat(jwtService.verify("")).isEmpty();
+        assertThat(jwtService.verify(legacy)).isEmpty();
+    }
+
+    @Test
+    void verify_rejectsExpiredTokens() {
+        when(tokenVersions.isCurrent(anyLong(), anyInt(), anyString(), anyString())).thenReturn(true);
+        JwtService shortLived = new JwtService(SECRET, -1_000, 100, meterRegistry, tokenVersions);
+
+        assertThat(shortLived.verify(shortLived.generateToken(user()))).isEmpty();
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("asha@example.com");
+        user.setRole(UserRole.ADMIN);
+        user.setTokenVersion(2);
+        return user;
+    }
+}
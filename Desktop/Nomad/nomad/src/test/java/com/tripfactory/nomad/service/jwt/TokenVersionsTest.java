@@ -0,0 +1,49 @@
+package com.tripfactory.nomad.service.jwt;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.enums.UserRole;
+import com.tripfactory.nomad.domain.projection.UserTokenState;
+import com.tripfactory.nomad.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenVersionsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersions tokenVersions = new TokenVersions(userRepository, new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1));
+
+    @Test
+    void isCurrent_acceptsMatchingClaimsAndCachesTheLookup() {
+        when(userRepository.findTokenStateById(7L))
+                .thenReturn(Optional.of(new UserTokenState(2, UserRole.ADMIN, "asha@example.com")));
+
+        assertThat(tokenVersions.isCurrent(7L, 2, "ADMIN", "asha@example.com")).isTrue();
+        assertThat(tokenVersions.isCurrent(7L, 2, "ADMIN", "asha@example.com")).isTrue();
+        verify(userRepository, times(1)).findTokenStateById(7L);
+    }
+
+    @Test
+    void isCurrent_rejectsTokensWhoseVersionRoleOrEmailNoLongerMatch() {
+        when(userRepository.findTokenStateById(7L))
+                .thenReturn(Optional.of(new UserTokenState(2, UserRole.USER, "asha@example.com")));
+
+        assertThat(tokenVersions.isCurrent(7L, 1, "USER", "asha@example.com")).isFalse();
+        assertThat(tokenVersions.isCurrent(7L, 2, "ADMIN", "asha@example.com")).isFalse();
+        assertThat(tokenVersions.isCurrent(7L, 2, "USER", "old@example.com")).isFalse();
+    }
+
+    @Test
+    void isCurrent_rejectsTokensOfUnknownUsers() {
+        when(userRepository.findTokenStateById(8L)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersions.isCurrent(8L, -1, "USER", "gone@example.com")).isFalse();
+    }
+}
@@ -0,0 +1,236 @@
+package com.tripfactory.nomad.service.notification;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tripfactory.nomad.domain.entity.NotificationOutbox;
+import com.tripfactory.nomad.domain.enums.OutboxStatus;
+import com.tripfactory.nomad.repository.NotificationOutboxRepository;
+import com.tripfactory.nomad.service.NotificationService;
+import com.tripfactory.nomad.service.impl.NotificationServiceImpl;
+import com.tripfactory.nomad.service.impl.OutboxNotificationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(showSql = false)
+@Import({ OutboxNotificationService.class, OutboxDispatcher.class, SimpleMeterRegistry.class })
+@TestPropertySource(properties = { "nomad.notifications.outbox.batch-size=2",
+        "nomad.notifications.outbox.max-attempts=2" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    private static final Duration SHORT_LEASE = Duration.ofMillis(300);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private NotificationServiceImpl delivery;
+
+    @MockitoBean
+    private SmsDispatchQueue smsQueue;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAllInBatch();
+        when(delivery.deliverEmails(anyList()))
+                .thenAnswer(call -> Collections.nCopies(call.<List<?>>getArgument(0).size(), null));
+        when(smsQueue.submit(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void messagesAreQueuedOnlyWhenTheCallerCommits() {
+        TransactionTemplate caller = new TransactionTemplate(transactionManager);
+        caller.executeWithoutResult(status -> {
+            notificationService.sendEmail("a@example.com", "Rolled back", "body");
+            status.setRollbackOnly();
+        });
+        caller.executeWithoutResult(status -> {
+            notificationService.sendEmail("a@example.com", "Trip", "body");
+            notificationService.sendSms("+911234567890", "sms");
+            notificationService.sendSms(" ", "no number");
+        });
+
+        verifyNoInteractions(delivery, smsQueue);
+        assertThat(outboxRepository.countByStatus(OutboxStatus.PENDING)).isEqualTo(2);
+    }
+
+    @Test
+    void dispatch_sendsEveryDueMessageInBatches() {
+        notificationService.sendEmail("a@example.com", "One", "1");
+        notificationService.sendEmail("b@example.com", "Two", "2");
+        notificationService.sendSms("+911234567890", "3");
+        dispatcher.refreshPendingCounts();
+        assertThat(pending("email")).isEqualTo(2);
+        assertThat(pending("sms")).isEqualTo(1);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(3);
+
+        ArgumentCaptor<List<SimpleMailMessage>> batches = ArgumentCaptor.captor();
+        verify(delivery, times(1)).deliverEmails(batches.capture());
+        assertThat(batches.getValue()).extracting(SimpleMailMessage::getSubject).containsExactly("One", "Two");
+        assertThat(batches.getValue().get(0).getTo()).containsExactly("a@example.com");
+        verify(smsQueue).submit("+911234567890", "3");
+        // The gauge keeps its last counts until the next refresh, without querying on read
+        assertThat(pending("email")).isEqualTo(2);
+        dispatcher.refreshPendingCounts();
+        assertThat(pending("email")).isZero();
+        assertThat(pending("sms")).isZero();
+        assertThat(outboxRepository.findAll()).allSatisfy(message -> {
+            assertThat(message.getStatus()).isEqualTo(OutboxStatus.SENT);
+            assertThat(message.getSentAt()).isNotNull();
+        });
+        assertThat(dispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void dispatch_backsOffOnFailureAndGivesUpAfterMaxAttempts() {
+        when(delivery.deliverEmails(anyList())).thenReturn(List.of(new MailSendException("relay down")));
+        notificationService.sendEmail("a@example.com", "Trip", "body");
+
+        Instant beforeDispatch = Instant.now();
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        NotificationOutbox retrying = single();
+        assertThat(retrying.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getLastError()).isEqualTo("relay down");
+        assertThat(retrying.getNextAttemptAt()).isAfter(beforeDispatch.plusSeconds(5));
+        assertThat(dispatcher.dispatch()).as("not due yet").isZero();
+
+        retrying.setNextAttemptAt(Instant.now());
+        outboxRepository.save(retrying);
+        dispatcher.dispatch();
+        assertThat(single().getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(dispatcher.backoff(30)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    @Test
+    void dispatch_settlesQueuedSmsWhenTheQueueReportsTheSend() {
+        CompletableFuture<Void> queued = new CompletableFuture<>();
+        when(smsQueue.submit(any(), any())).thenReturn(queued);
+        notificationService.sendSms("+911234567890", "Trip planned");
+
+        Instant beforeDispatch = Instant.now();
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        NotificationOutbox claimed = single();
+        assertThat(claimed.getStatus()).isEqualTo(OutboxStatus.QUEUED);
+        assertThat(claimed.getNextAttemptAt()).as("held by the claim lease").isAfter(beforeDispatch.plusSeconds(60));
+        assertThat(dispatcher.dispatch()).isZero();
+
+        queued.complete(null);
+        assertThat(single().getStatus()).isEqualTo(OutboxStatus.SENT);
+    }
+
+    @Test
+    void dispatch_neverReclaimsSmsStillWaitingOnASlowGatewayAfterTheLeaseRunsOut() throws InterruptedException {
+        CountDownLatch gatewayReleased = new CountDownLatch(1);
+        AtomicInteger sends = new AtomicInteger();
+        SmsGateway slowGateway = (to, body) -> {
+            sends.incrementAndGet();
+            try {
+                gatewayReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        SmsDispatchQueue slowQueue = new SmsDispatchQueue(slowGateway, meterRegistry, true, 100, 1, 10,
+                Duration.ZERO);
+        OutboxDispatcher node = shortLeaseDispatcher(slowQueue);
+        OutboxDispatcher otherNode = shortLeaseDispatcher(slowQueue);
+        try {
+            notificationService.sendSms("+911234567890", "Trip planned");
+            assertThat(node.dispatch()).isEqualTo(1);
+
+            Thread.sleep(SHORT_LEASE.multipliedBy(2).toMillis());
+            assertThat(node.dispatch()).as("renews its lease instead of re-claiming").isZero();
+            assertThat(otherNode.dispatch()).isZero();
+            assertThat(single().getStatus()).isEqualTo(OutboxStatus.QUEUED);
+
+            gatewayReleased.countDown();
+            await(() -> single().getStatus() == OutboxStatus.SENT);
+            assertThat(sends).hasValue(1);
+            assertThat(single().getAttempts()).isEqualTo(1);
+        } finally {
+            gatewayReleased.countDown();
+            slowQueue.shutdown();
+        }
+    }
+
+    @Test
+    void dispatch_reclaimsSmsQueuedByANodeThatStoppedRenewing() throws InterruptedException {
+        when(smsQueue.submit(any(), any())).thenReturn(new CompletableFuture<>());
+        OutboxDispatcher deadNode = shortLeaseDispatcher(smsQueue);
+        notificationService.sendSms("+911234567890", "Trip planned");
+        assertThat(deadNode.dispatch()).isEqualTo(1);
+
+        Thread.sleep(SHORT_LEASE.multipliedBy(2).toMillis());
+        when(smsQueue.submit(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+
+        assertThat(single().getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(single().getAttempts()).isEqualTo(2);
+    }
+
+    private double pending(String channel) {
+        return meterRegistry.get("nomad.notifications.outbox.pending").tag("channel", channel).gauge().value();
+    }
+
+    private OutboxDispatcher shortLeaseDispatcher(SmsDispatchQueue queue) {
+        return new OutboxDispatcher(outboxRepository, delivery, queue, transactionManager, meterRegistry, 2, 2,
+                Duration.ofSeconds(10), Duration.ofDays(7), SHORT_LEASE);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private NotificationOutbox single() {
+        List<NotificationOutbox> all = outboxRepository.findAll();
+        assertThat(all).hasSize(1);
+        return all.get(0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.tripfactory.nomad.service.notification;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SmsDispatchQueueTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private SmsDispatchQueue queue;
+
+    @AfterEach
+    void shutdown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void messagesToTheSameNumberWithinTheWindowAreCombined() throws Exception {
+        queue = queue((to, body) -> sent.add(to + ": " + body), 10, Duration.ofMillis(200));
+
+        CompletableFuture<Void> planned = queue.submit("+911111111111", "Trip planned");
+        CompletableFuture<Void> paid = queue.submit("+911111111111", "Payment confirmed");
+        CompletableFuture<Void> other = queue.submit("+912222222222", "Pickup at 9");
+
+        assertThat(planned.isDone()).as("held for the coalescing window").isFalse();
+        CompletableFuture.allOf(planned, paid, other).get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactlyInAnyOrder(
+                "+911111111111: Trip planned\nPayment confirmed",
+                "+912222222222: Pickup at 9");
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void submitNeverBlocksAndRejectsWhenFull() throws Exception {
+        CountDownLatch provider = new CountDownLatch(1);
+        queue = queue((to, body) -> {
+            await(provider);
+            sent.add(to);
+        }, 2, Duration.ZERO);
+
+        CompletableFuture<Void> first = queue.submit("+911111111111", "a");
+        CompletableFuture<Void> second = queue.submit("+912222222222", "b");
+        CompletableFuture<Void> third = queue.submit("+913333333333", "c");
+
+        assertThat(third).isCompletedExceptionally();
+        assertThatThrownBy(third::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        provider.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    void providerFailureFailsEveryCombinedMessage() {
+        queue = queue((to, body) -> {
+            throw new IllegalStateException("provider down");
+        }, 10, Duration.ofMillis(50));
+
+        CompletableFuture<Void> planned = queue.submit("+911111111111", "Trip planned");
+        CompletableFuture<Void> paid = queue.submit("+911111111111", "Payment confirmed");
+
+        assertThatThrownBy(planned::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(paid::join).hasMessageContaining("provider down");
+    }
+
+    @Test
+    void disabledQueueCompletesWithoutSending() {
+        queue = new SmsDispatchQueue((to, body) -> sent.add(to), new SimpleMeterRegistry(), false, 10, 1, 0,
+                Duration.ZERO);
+
+        assertThat(queue.submit("+911111111111", "Trip planned")).isCompleted();
+        assertThat(sent).isEmpty();
+    }
+
+    private static SmsDispatchQueue queue(SmsGateway gateway, int capacity, Duration window) {
+        return new SmsDispatchQueue(gateway, new SimpleMeterRegistry(), true, capacity, 2, 0, window);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
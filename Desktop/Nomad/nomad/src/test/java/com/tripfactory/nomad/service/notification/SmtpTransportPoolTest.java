@@ -0,0 +1,110 @@
+package com.tripfactory.nomad.service.notification;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort())
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("nomad", "secret"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void batchesReuseTheSameAuthenticatedConnections() throws Exception {
+        pool = new SmtpTransportPool(mailSender(), meterRegistry, 3, 0, 100);
+
+        assertThat(pool.send(messages(30))).containsOnlyNulls().hasSize(30);
+        assertThat(pool.send(messages(30))).containsOnlyNulls();
+
+        assertThat(smtp.getReceivedMessages()).hasSize(60);
+        assertThat(meterRegistry.get("nomad.mail.connections.opened").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("nomad.mail.send").tag("outcome", "success").timer().count()).isEqualTo(60);
+    }
+
+    @Test
+    void connectionIsRecycledAfterMessagesPerConnection() throws Exception {
+        pool = new SmtpTransportPool(mailSender(), meterRegistry, 1, 0, 5);
+
+        assertThat(pool.send(messages(12))).containsOnlyNulls();
+
+        assertThat(smtp.getReceivedMessages()).hasSize(12);
+        assertThat(meterRegistry.get("nomad.mail.connections.opened").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void sendRateIsLimitedAcrossConnections() throws Exception {
+        pool = new SmtpTransportPool(mailSender(), meterRegistry, 2, 20, 100);
+
+        long started = System.nanoTime();
+        assertThat(pool.send(messages(11))).containsOnlyNulls();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // 11 permits at 20/s: the first is immediate, the rest are 50 ms apart
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(480);
+        assertThat(smtp.getReceivedMessages()).hasSize(11);
+    }
+
+    @Test
+    void unreachableServerFailsEachMessage() throws Exception {
+        JavaMailSenderImpl unreachable = mailSender();
+        unreachable.setPort(1);
+        pool = new SmtpTransportPool(unreachable, meterRegistry, 2, 0, 100);
+
+        assertThat(pool.send(messages(3))).hasSize(3).doesNotContainNull();
+        assertThat(meterRegistry.get("nomad.mail.send").tag("outcome", "failure").timer().count()).isEqualTo(3);
+    }
+
+    private static JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.getSmtp().getPort());
+        sender.setUsername("nomad");
+        sender.setPassword("secret");
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        JavaMailSenderImpl sender = mailSender();
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message);
+            helper.setFrom("no-reply@nomad.com");
+            helper.setTo("traveller" + i + "@example.com");
+            helper.setSubject("NOMAD Payment Confirmed");
+            helper.setText("Trip " + i);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
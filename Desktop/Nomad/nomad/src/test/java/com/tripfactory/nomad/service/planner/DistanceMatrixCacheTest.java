@@ -0,0 +1,105 @@
+package com.tripfactory.nomad.service.planner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DistanceMatrixCacheTest {
+
+    private final DistanceMatrixCache cache = new DistanceMatrixCache(new SimpleMeterRegistry(), 100, 16, false);
+
+    @Test
+    void matrix_matchesHaversineInBothDirections() {
+        CityPlaceSnapshot snapshot = snapshot(50);
+
+        PlaceDistances distances = cache.forSnapshot(snapshot);
+
+        assertThat(distances).isInstanceOf(CityDistanceMatrix.class);
+        for (int i = 0; i < snapshot.size(); i++) {
+            for (int j = 0; j < snapshot.size(); j++) {
+                double expected = GeoUtils.haversineKm(snapshot.latitude(i), snapshot.longitude(i),
+                        snapshot.latitude(j), snapshot.longitude(j));
+                assertThat(distances.between(i, j)).isCloseTo(expected, within(1e-4));
+            }
+        }
+    }
+
+    @Test
+    void forSnapshot_reusesMatrixUntilSnapshotOrCatalogChanges() {
+        CityPlaceSnapshot snapshot = snapshot(10);
+        PlaceDistances first = cache.forSnapshot(snapshot);
+
+        assertThat(cache.forSnapshot(snapshot)).isSameAs(first);
+        assertThat(cache.forSnapshot(snapshot(10))).isNotSameAs(first);
+
+        PlaceDistances rebuilt = cache.forSnapshot(snapshot);
+        cache.onCatalogChanged(PlaceCatalogChangedEvent.removed(place(1L, 0, 0)));
+        assertThat(cache.forSnapshot(snapshot)).isNotSameAs(rebuilt);
+    }
+
+    @Test
+    void forSnapshot_computesOnDemandForLargeCities() {
+        CityPlaceSnapshot snapshot = snapshot(101);
+
+        PlaceDistances distances = cache.forSnapshot(snapshot);
+
+        assertThat(distances).isNotInstanceOf(CityDistanceMatrix.class);
+        assertThat(distances.between(3, 7)).isCloseTo(GeoUtils.haversineKm(snapshot.latitude(3),
+                snapshot.longitude(3), snapshot.latitude(7), snapshot.longitude(7)), within(1e-9));
+    }
+
+    @Test
+    void forSnapshot_computesOnDemandUntilTheBackgroundBuildIsReady() throws InterruptedException {
+        DistanceMatrixCache async = new DistanceMatrixCache(new SimpleMeterRegistry(), 100, 16, true);
+        try {
+            CityPlaceSnapshot snapshot = snapshot(60);
+            PlaceDistances first = async.forSnapshot(snapshot);
+            assertThat(first.between(3, 7)).isCloseTo(GeoUtils.haversineKm(snapshot.latitude(3),
+                    snapshot.longitude(3), snapshot.latitude(7), snapshot.longitude(7)), within(1e-4));
+
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            PlaceDistances distances = first;
+            while (!(distances instanceof CityDistanceMatrix) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+                distances = async.forSnapshot(snapshot);
+            }
+            assertThat(distances).isInstanceOf(CityDistanceMatrix.class);
+            assertThat(async.forSnapshot(snapshot)).isSameAs(distances);
+        } finally {
+            async.shutdown();
+        }
+    }
+
+    private static CityPlaceSnapshot snapshot(int size) {
+        Random random = new Random(size);
+        List<PlaceSummary> places = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            places.add(PlaceSummary.of(place(i + 1L, 12.85 + 0.25 * random.nextDouble(), 77.45 + 0.30 * random.nextDouble())));
+        }
+        return CityPlaceSnapshot.of("bengaluru", places);
+    }
+
+    private static Place place(Long id, double lat, double lon) {
+        Place place = new Place();
+        place.setId(id);
+        place.setName("Place " + id);
+        place.setCity("Bengaluru");
+        place.setLatitude(lat);
+        place.setLongitude(lon);
+        place.setCategory(InterestType.CULTURE);
+        place.setRating(4.0);
+        return place;
+    }
+}
@@ -0,0 +1,72 @@
+package com.tripfactory.nomad.service.planner;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.repository.PlaceRepository;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PlaceSnapshotRegistryTest {
+
+    private final PlaceRepository placeRepository = mock(PlaceRepository.class);
+    private final PlaceSnapshotRegistry registry = new PlaceSnapshotRegistry(placeRepository,
+            new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+
+    @Test
+    void forCity_reusesSnapshotUntilCatalogChanges() {
+        when(placeRepository.findSummariesByCity("Bengaluru")).thenReturn(List.of(PlaceSummary.of(place(1L))));
+
+        CityPlaceSnapshot first = registry.forCity("Bengaluru");
+        assertThat(registry.forCity(" bengaluru ")).isSameAs(first);
+
+        registry.onCatalogChanged(PlaceCatalogChangedEvent.removed(place(1L)));
+        assertThat(registry.forCity("Bengaluru")).isNotSameAs(first);
+        verify(placeRepository, times(2)).findSummariesByCity("Bengaluru");
+    }
+
+    @Test
+    void forCity_doesNotKeepCitiesWithoutPlaces() {
+        when(placeRepository.findSummariesByCity(anyString())).thenReturn(List.of());
+
+        assertThat(registry.forCity("Atlantis").isEmpty()).isTrue();
+        assertThat(registry.forCity("Atlantis").isEmpty()).isTrue();
+
+        verify(placeRepository, times(2)).findSummariesByCity("Atlantis");
+    }
+
+    @Test
+    void forCity_dropsSnapshotInvalidatedWhileLoading() {
+        when(placeRepository.findSummariesByCity("Bengaluru"))
+                .thenAnswer(invocation -> {
+                    registry.onCatalogChanged(PlaceCatalogChangedEvent.removed(place(1L)));
+                    return List.of(PlaceSummary.of(place(1L)));
+                })
+                .thenReturn(List.of(PlaceSummary.of(place(1L)), PlaceSummary.of(place(2L))));
+
+        assertThat(registry.forCity("Bengaluru").size()).isEqualTo(1);
+        assertThat(registry.forCity("Bengaluru").size()).isEqualTo(2);
+    }
+
+    private static Place place(Long id) {
+        Place place = new Place();
+        place.setId(id);
+        place.setName("Place " + id);
+        place.setCity("Bengaluru");
+        place.setLatitude(12.97 + id * 0.01);
+        place.setLongitude(77.59);
+        place.setCategory(InterestType.CULTURE);
+        place.setRating(4.0);
+        return place;
+    }
+}
@@ -0,0 +1,166 @@
+package com.tripfactory.nomad.service.planner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.entity.Place;
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.service.event.PlaceCatalogChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PlanPreviewCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlanPreviewCache cache = new PlanPreviewCache(meterRegistry, true, 100, Duration.ofMinutes(10), 6);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_sharesOptionsWithinCellAndRecordsHits() {
+        CityPlaceSnapshot snapshot = snapshot();
+
+        cache.get(snapshot, WeekendType.ONE_DAY, 12.97160, 77.59460, this::load);
+        cache.get(snapshot, WeekendType.ONE_DAY, 12.97165, 77.59462, this::load);
+        cache.get(snapshot, WeekendType.TWO_DAY, 12.97160, 77.59460, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "planPreview").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_recomputesWhenSnapshotIsReplaced() {
+        cache.get(snapshot(), WeekendType.ONE_DAY, 12.9716, 77.5946, this::load);
+        cache.get(snapshot(), WeekendType.ONE_DAY, 12.9716, 77.5946, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void catalogChange_evictsOnlyThatCity() {
+        CityPlaceSnapshot snapshot = snapshot();
+        cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, this::load);
+        Place mumbai = new Place();
+        mumbai.setCity("Mumbai");
+
+        cache.onCatalogChanged(PlaceCatalogChangedEvent.added(mumbai));
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.onCatalogChanged(PlaceCatalogChangedEvent.added(place()));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_doesNotCachePartialResults() {
+        CityPlaceSnapshot snapshot = snapshot();
+        PlanPreviewCache.Loader partial = (lat, lon) -> {
+            loads.incrementAndGet();
+            return PlanPreviewCache.Options.partial(List.of(new TripPlanner.PlanOption("Culture Only", List.of())));
+        };
+
+        assertThat(cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, partial)).hasSize(1);
+        cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void originFor_isThePointPreviewsArePlannedFrom() {
+        double[] planned = new double[2];
+        cache.get(snapshot(), WeekendType.ONE_DAY, 12.97165, 77.59462, (lat, lon) -> {
+            planned[0] = lat;
+            planned[1] = lon;
+            return load(lat, lon);
+        });
+
+        PlanPreviewCache.Origin origin = cache.originFor(12.97165, 77.59462);
+        assertThat(origin.getLatitude()).isEqualTo(planned[0]);
+        assertThat(origin.getLongitude()).isEqualTo(planned[1]);
+        assertThat(new PlanPreviewCache(meterRegistry, false, 100, Duration.ofMinutes(10), 6)
+                .originFor(12.97165, 77.59462).getLatitude()).isEqualTo(12.97165);
+    }
+
+    @Test
+    void get_plansEachEntryOnceWithoutBlockingOtherEntries() throws Exception {
+        CityPlaceSnapshot snapshot = snapshot();
+        CountDownLatch planning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlanPreviewCache.Loader slow = (lat, lon) -> {
+            planning.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(lat, lon);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<TripPlanner.PlanOption>> first = pool.submit(
+                    () -> cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, slow));
+            assertThat(planning.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<List<TripPlanner.PlanOption>> waiting = pool.submit(
+                    () -> cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, slow));
+
+            // Another entry, possibly in the same hash bin, is planned while the first plan is still running
+            cache.get(snapshot, WeekendType.TWO_DAY, 12.9716, 77.5946, this::load);
+            assertThat(waiting.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(waiting.get(10, TimeUnit.SECONDS)).isSameAs(first.get(10, TimeUnit.SECONDS));
+            assertThat(loads).hasValue(2);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_doesNotKeepFailedPlans() {
+        CityPlaceSnapshot snapshot = snapshot();
+        PlanPreviewCache.Loader failing = (lat, lon) -> {
+            throw new IllegalStateException("planner busy");
+        };
+
+        assertThatIllegalStateException().isThrownBy(
+                () -> cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, failing));
+        cache.get(snapshot, WeekendType.ONE_DAY, 12.9716, 77.5946, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private PlanPreviewCache.Options load(double lat, double lon) {
+        loads.incrementAndGet();
+        return PlanPreviewCache.Options.complete(List.of(new TripPlanner.PlanOption("Culture Only", List.of())));
+    }
+
+    private static CityPlaceSnapshot snapshot() {
+        return CityPlaceSnapshot.of("bengaluru", List.of(PlaceSummary.of(place())));
+    }
+
+    private static Place place() {
+        Place place = new Place();
+        place.setId(1L);
+        place.setName("Cubbon Park");
+        place.setCity("Bengaluru");
+        place.setLatitude(12.9763);
+        place.setLongitude(77.5929);
+        place.setCategory(InterestType.NATURE);
+        place.setRating(4.6);
+        return place;
+    }
+}
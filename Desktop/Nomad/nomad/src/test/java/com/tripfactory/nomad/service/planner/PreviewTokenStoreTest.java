@@ -0,0 +1,40 @@
+package com.tripfactory.nomad.service.planner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.enums.WeekendType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PreviewTokenStoreTest {
+
+    private final PreviewTokenStore store = new PreviewTokenStore(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(30));
+    private final CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of());
+    private final TripPlanner.PlanOption option = new TripPlanner.PlanOption("Culture Only", List.of());
+
+    @Test
+    void find_returnsPlanOnlyToTheUserItWasIssuedTo() {
+        String token = store.register(7L, snapshot, WeekendType.ONE_DAY, option);
+
+        assertThat(store.find(token, 7L)).get().extracting(PreviewTokenStore.PreviewedPlan::getOption)
+                .isSameAs(option);
+        assertThat(store.find(token, 8L)).isEmpty();
+        assertThat(store.find(token, null)).isEmpty();
+    }
+
+    @Test
+    void register_mintsADistinctTokenPerCall() {
+        String first = store.register(7L, snapshot, WeekendType.ONE_DAY, option);
+        String second = store.register(8L, snapshot, WeekendType.ONE_DAY, option);
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(store.find(second, 8L)).isPresent();
+        assertThat(store.find("", 7L)).isEmpty();
+    }
+}
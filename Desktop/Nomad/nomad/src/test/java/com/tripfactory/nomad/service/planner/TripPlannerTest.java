@@ -0,0 +1,161 @@
+package com.tripfactory.nomad.service.planner;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.tripfactory.nomad.domain.enums.InterestType;
+import com.tripfactory.nomad.domain.projection.PlaceSummary;
+import com.tripfactory.nomad.domain.enums.WeekendType;
+import com.tripfactory.nomad.service.route.LocalSearchRouteOptimizer;
+import com.tripfactory.nomad.service.util.GeoUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TripPlannerTest {
+
+    private static final double USER_LAT = 12.9716;
+    private static final double USER_LON = 77.5946;
+
+    private static final DistanceMatrixCache MATRICES = new DistanceMatrixCache(new SimpleMeterRegistry(), 4000, 16,
+            false);
+
+    private final TripPlanner planner = new TripPlanner(new LocalSearchRouteOptimizer(50), MATRICES, 100, Integer.MAX_VALUE, 500, 1);
+
+    @Test
+    void planAll_returnsOneOptionPerCategoryPlusHybrid() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of(
+                place(3L, InterestType.FOOD, 12.9800, 77.6000, 4.0),
+                place(1L, InterestType.FOOD, 12.9720, 77.5950, 4.5),
+                place(2L, InterestType.NATURE, 12.9507, 77.5848, 4.6)));
+
+        List<TripPlanner.PlanOption> options = planner.planAll(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                WeekendType.ONE_DAY).getOptions();
+
+        assertThat(options).extracting(TripPlanner.PlanOption::getType)
+                .containsExactly("FOOD Only", "NATURE Only", "Hybrid");
+        List<TripPlanner.PlannedStop> food = options.get(0).getStops();
+        assertThat(food).extracting(stop -> snapshot.id(stop.getPlaceIndex())).containsExactly(1L, 3L);
+        assertThat(food).extracting(TripPlanner.PlannedStop::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+        assertThat(food.get(0).getDistanceFromPrevious()).isLessThan(1.0);
+    }
+
+    @Test
+    void planAll_parallelMatchesSequential() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of(
+                place(1L, InterestType.FOOD, 12.9720, 77.5950, 4.5),
+                place(2L, InterestType.NATURE, 12.9507, 77.5848, 4.6),
+                place(3L, InterestType.CULTURE, 12.9800, 77.6000, 4.0),
+                place(4L, InterestType.NIGHTLIFE, 12.9650, 77.6100, 4.1)));
+        TripPlanner parallel = new TripPlanner(new LocalSearchRouteOptimizer(50), MATRICES, 100, 0, 5_000, 2);
+        try {
+            TripPlanner.PlanOptions expected = planner.planAll(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                    WeekendType.TWO_DAY);
+            TripPlanner.PlanOptions actual = parallel.planAll(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                    WeekendType.TWO_DAY);
+
+            assertThat(actual.isComplete()).isTrue();
+            assertThat(actual.getOptions()).extracting(TripPlanner.PlanOption::getType)
+                    .containsExactlyElementsOf(expected.getOptions().stream().map(TripPlanner.PlanOption::getType).toList());
+            assertThat(actual.getOptions().get(4).getStops()).extracting(TripPlanner.PlannedStop::getPlaceIndex)
+                    .containsExactlyElementsOf(expected.getOptions().get(4).getStops().stream()
+                            .map(TripPlanner.PlannedStop::getPlaceIndex).toList());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void planAll_returnsPartialResultInsteadOfRunningInlineWhenThePoolIsFull() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of(
+                place(1L, InterestType.FOOD, 12.9720, 77.5950, 4.5),
+                place(2L, InterestType.NATURE, 12.9507, 77.5848, 4.6)));
+        TripPlanner busy = new TripPlanner(new LocalSearchRouteOptimizer(50), MATRICES, 100, 0, 200, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ThreadPoolExecutor executor = busy.executor();
+            while (executor.getQueue().remainingCapacity() > 0) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            long start = System.nanoTime();
+            TripPlanner.PlanOptions options = busy.planAll(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                    WeekendType.ONE_DAY);
+
+            assertThat(options.isComplete()).isFalse();
+            assertThat(options.getOptions()).isEmpty();
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+
+    @Test
+    void plan_movesNightlifeToEndOfDay() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of(
+                place(1L, InterestType.NIGHTLIFE, 12.9720, 77.5950, 4.2),
+                place(2L, InterestType.FOOD, 12.9800, 77.6000, 4.0)));
+
+        TripPlanner.PlanOption hybrid = planner.plan(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                WeekendType.ONE_DAY, TripPlanner.HYBRID_PLAN).orElseThrow();
+
+        assertThat(hybrid.getStops()).extracting(stop -> snapshot.id(stop.getPlaceIndex())).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void plan_usesWholeCityWhenNothingIsWithinRadius() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("mumbai", List.of(
+                place(4L, InterestType.CULTURE, 18.9440, 72.8238, 4.7)));
+
+        assertThat(planner.plan(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON, WeekendType.TWO_DAY,
+                "CULTURE Only")).isPresent();
+        assertThat(planner.plan(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON, WeekendType.TWO_DAY,
+                "FOOD Only")).isEmpty();
+    }
+
+    @Test
+    void withHome_remeasuresEachDaysFirstLegOnly() {
+        CityPlaceSnapshot snapshot = CityPlaceSnapshot.of("bengaluru", List.of(
+                place(1L, InterestType.FOOD, 12.9720, 77.5950, 4.5),
+                place(2L, InterestType.FOOD, 12.9507, 77.5848, 4.6),
+                place(3L, InterestType.FOOD, 12.9800, 77.6000, 4.0),
+                place(4L, InterestType.FOOD, 12.9650, 77.6100, 4.1)));
+        TripPlanner.PlanOption planned = planner.plan(snapshot, USER_LAT, USER_LON, USER_LAT, USER_LON,
+                WeekendType.TWO_DAY, TripPlanner.singleInterestPlan(InterestType.FOOD)).orElseThrow();
+
+        TripPlanner.PlanOption rebased = planned.withHome(snapshot, 12.9900, 77.6200);
+
+        assertThat(rebased.getType()).isEqualTo(planned.getType());
+        for (int i = 0; i < planned.getStops().size(); i++) {
+            TripPlanner.PlannedStop before = planned.getStops().get(i);
+            TripPlanner.PlannedStop after = rebased.getStops().get(i);
+            assertThat(after.getPlaceIndex()).isEqualTo(before.getPlaceIndex());
+            assertThat(after.getStartTime()).isEqualTo(before.getStartTime());
+            boolean firstOfDay = i == 0 || planned.getStops().get(i - 1).getDayNumber() != before.getDayNumber();
+            double expected = firstOfDay
+                    ? GeoUtils.haversineKm(12.9900, 77.6200, snapshot.latitude(before.getPlaceIndex()),
+                            snapshot.longitude(before.getPlaceIndex()))
+                    : before.getDistanceFromPrevious();
+            assertThat(after.getDistanceFromPrevious()).isCloseTo(expected, within(1e-9));
+        }
+        assertThat(rebased.getStops()).extracting(TripPlanner.PlannedStop::getDayNumber).contains(1, 2);
+    }
+
+    private static PlaceSummary place(Long id, InterestType category, double lat, double lon, double rating) {
+        return new PlaceSummary(id, "Place " + id, "Bengaluru", lat, lon, category, rating);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tripfactory.nomad.service.route;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class LocalSearchRouteOptimizerTest {
+
+    @Test
+    void optimize_returnsPermutationNoLongerThanGreedy() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            RouteCosts costs = randomCosts(random, 40);
+
+            int[] greedy = LocalSearchRouteOptimizer.nearestNeighbour(costs);
+            int[] improved = new LocalSearchRouteOptimizer(200).optimize(costs);
+
+            assertThat(Arrays.stream(improved).sorted().toArray()).isEqualTo(IntStream.range(0, 40).toArray());
+            assertThat(length(costs, improved)).isLessThanOrEqualTo(length(costs, greedy) + 1e-9);
+        }
+    }
+
+    @Test
+    void optimize_removesCrossingLeftByGreedy() {
+        // Stops on one meridian at +1, -1.5 and +3 units from the origin: greedy goes +1, +3, -1.5 (7.5 units)
+        // while -1.5, +1, +3 costs 6
+        RouteCosts costs = RouteCosts.haversine(12.9700, 77.5900,
+                new double[] { 12.9800, 12.9550, 13.0000 },
+                new double[] { 77.5900, 77.5900, 77.5900 });
+
+        int[] greedy = LocalSearchRouteOptimizer.nearestNeighbour(costs);
+        int[] improved = new LocalSearchRouteOptimizer(200).optimize(costs);
+
+        assertThat(greedy).containsExactly(0, 2, 1);
+        assertThat(improved).containsExactly(1, 0, 2);
+    }
+
+    @Test
+    void optimize_withZeroBudgetKeepsGreedyRoute() {
+        RouteCosts costs = randomCosts(new Random(3), 12);
+
+        assertThat(new LocalSearchRouteOptimizer(0).optimize(costs))
+                .isEqualTo(LocalSearchRouteOptimizer.nearestNeighbour(costs));
+    }
+
+    private static RouteCosts randomCosts(Random random, int n) {
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = 12.85 + 0.25 * random.nextDouble();
+            lons[i] = 77.45 + 0.30 * random.nextDouble();
+        }
+        return RouteCosts.haversine(12.9716, 77.5946, lats, lons);
+    }
+
+    private static double length(RouteCosts costs, int[] order) {
+        double total = costs.fromOrigin(order[0]);
+        for (int i = 1; i < order.length; i++) {
+            total += costs.between(order[i - 1], order[i]);
+        }
+        return total;
+    }
+}
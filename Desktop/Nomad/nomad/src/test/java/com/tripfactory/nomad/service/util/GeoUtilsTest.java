@@ -0,0 +1,71 @@
+package com.tripfactory.nomad.service.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeoUtilsTest {
+
+    @Test
+    void batchKernel_matchesPairwiseDistance() {
+        Random random = new Random(42);
+        int count = 203;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = -80 + 160 * random.nextDouble();
+            lons[i] = -180 + 360 * random.nextDouble();
+        }
+
+        double[] batch = GeoUtils.haversineKm(12.9716, 77.5946, lats, lons);
+        double[] scalar = new double[count];
+        GeoUtils.haversineKmScalar(12.9716, 77.5946, lats, lons, scalar, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            double expected = GeoUtils.haversineKm(12.9716, 77.5946, lats[i], lons[i]);
+            assertThat(batch[i]).isCloseTo(expected, within(1e-6));
+            assertThat(scalar[i]).isCloseTo(expected, within(1e-6));
+        }
+    }
+
+    @Test
+    void batchKernel_writesOnlyTheRequestedRange() {
+        Random random = new Random(7);
+        int count = 100;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = 12.85 + 0.25 * random.nextDouble();
+            lons[i] = 77.45 + 0.30 * random.nextDouble();
+        }
+        double[] out = new double[count];
+        Arrays.fill(out, -1);
+
+        GeoUtils.haversineKm(12.9716, 77.5946, lats, lons, out, 37, count);
+
+        for (int i = 0; i < count; i++) {
+            double expected = i < 37 ? -1 : GeoUtils.haversineKm(12.9716, 77.5946, lats[i], lons[i]);
+            assertThat(out[i]).isCloseTo(expected, within(1e-6));
+        }
+    }
+
+    @Test
+    void batchKernel_handlesIdenticalPoints() {
+        double[] distances = GeoUtils.haversineKm(19.0760, 72.8777, new double[] { 19.0760 }, new double[] { 72.8777 });
+
+        assertThat(distances[0]).isCloseTo(0.0, within(1e-9));
+    }
+
+    @Test
+    void geohash_roundTripsThroughBounds() {
+        String hash = GeoUtils.geohash(57.64911, 10.40744, 11);
+        GeoUtils.BoundingBox bounds = GeoUtils.geohashBounds(hash);
+
+        assertThat(hash).isEqualTo("u4pruydqqvj");
+        assertThat(bounds.getCenterLatitude()).isCloseTo(57.64911, within(1e-5));
+        assertThat(bounds.getCenterLongitude()).isCloseTo(10.40744, within(1e-5));
+    }
+}
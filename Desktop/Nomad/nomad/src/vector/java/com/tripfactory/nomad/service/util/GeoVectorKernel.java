@@ -0,0 +1,48 @@
+package com.tripfactory.nomad.service.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD haversine over primitive coordinate arrays. Lives outside {@code src/main/java} and is compiled only by
+ * the {@code vector} profile; {@link GeoUtils} instantiates it by name after checking that the
+ * {@code jdk.incubator.vector} module is present, so the rest of the code base never links against it.
+ */
+final class GeoVectorKernel implements BatchHaversineKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DEG_TO_RAD = Math.PI / 180.0;
+
+    GeoVectorKernel() {
+    }
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void haversineKm(double originLat, double originLon, double[] lats, double[] lons, double[] out,
+            int from, int to) {
+        double rOriginLat = Math.toRadians(originLat);
+        double rOriginLon = Math.toRadians(originLon);
+        double cosOrigin = Math.cos(rOriginLat);
+        int bound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector rLat = DoubleVector.fromArray(SPECIES, lats, i).mul(DEG_TO_RAD);
+            DoubleVector rLon = DoubleVector.fromArray(SPECIES, lons, i).mul(DEG_TO_RAD);
+            DoubleVector sinDLat = rLat.sub(rOriginLat).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinDLon = rLon.sub(rOriginLon).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = sinDLat.mul(sinDLat)
+                    .add(rLat.lanewise(VectorOperators.COS).mul(cosOrigin).mul(sinDLon).mul(sinDLon))
+                    .min(1.0);
+            a.lanewise(VectorOperators.SQRT)
+                    .lanewise(VectorOperators.ASIN)
+                    .mul(2 * GeoUtils.EARTH_RADIUS_KM)
+                    .intoArray(out, i);
+        }
+        GeoUtils.haversineKmScalar(originLat, originLon, lats, lons, out, i, to);
+    }
+}